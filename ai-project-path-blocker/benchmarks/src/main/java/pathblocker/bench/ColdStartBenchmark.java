@@ -0,0 +1,82 @@
+package pathblocker.bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Cold latency of solving the 16x16 level 07 the way a script would: every operation starts
+// a fresh JVM running QuickSolve and waits for it to exit, so JVM startup, class loading
+// and the interpreted first solve are all included. share picks the class data sharing:
+// "off" disables it, "jdk" uses the JDK's default archive, "app" an AppCDS archive that
+// a training run of QuickSolve wrote during setup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@Fork(1)
+public class ColdStartBenchmark {
+    @Param({ "off", "jdk", "app" })
+    String share;
+
+    private List<String> command;
+    private Path archive;
+
+    @Setup
+    public void setup() throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        // The archive only holds classes from jars, and this JVM runs from benchmarks.jar
+        String classPath = System.getProperty("java.class.path");
+        String level = Levels.file(7);
+
+        command = new ArrayList<>();
+        command.add(java);
+        if (share.equals("off")) {
+            command.add("-Xshare:off");
+        } else if (share.equals("app")) {
+            archive = Files.createTempFile("quicksolve", ".jsa");
+            Files.delete(archive); // The JVM refuses to overwrite a file it did not write
+            run(List.of(java, "-XX:ArchiveClassesAtExit=" + archive, "-cp", classPath, "QuickSolve", level));
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.addAll(List.of("-cp", classPath, "QuickSolve", level));
+        run(command); // Fails early if the level does not solve
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (archive != null) {
+            Files.deleteIfExists(archive);
+        }
+    }
+
+    @Benchmark
+    public int solveInFreshJvm() throws Exception {
+        return run(command);
+    }
+
+    private static int run(List<String> command) throws Exception {
+        Process process = new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("Exit code " + exitCode + " from " + String.join(" ", command));
+        }
+        return exitCode;
+    }
+}
@@ -0,0 +1,162 @@
+package pathblocker.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.List;
+
+// The game lives in the unnamed package, which named packages (and the code JMH generates
+// for them) cannot import. This class binds the calls the benchmarks need once, as static
+// final method handles with the game types erased to Object. The JIT treats them as
+// constants and inlines straight through, so they add nothing to the measured time.
+final class Game {
+    private static final MethodHandle READ_MATRIX = bind("LevelLoader", "readMatrixFromFile", 1);
+    private static final MethodHandle READ_LEVEL = bind("LevelLoader", "read", 1);
+    private static final MethodHandle WRITE_PACK = bind("LevelPack", "write", 2);
+    private static final MethodHandle BOARD = bind("Board", "fromMatrix", 1);
+    private static final MethodHandle STRIDE = bind("Board", "stride", 0);
+    private static final MethodHandle INITIAL_STATE = bind("Board", "initialState", 1);
+    private static final MethodHandle NEW_MOVE_GENERATOR = bind("Board", "newMoveGenerator", 0);
+    private static final MethodHandle LOAD = bind("MoveGenerator", "load", 1);
+    private static final MethodHandle SLIDE = bind("MoveGenerator", "slide", 2);
+    private static final MethodHandle BITBOARD = bind("Bitboard", "fromMatrix", 1);
+    private static final MethodHandle GAME_STATE = bind("GameState", "fromMatrix", 1);
+    private static final MethodHandle MOVE = bind("GameState", "move", 1);
+    private static final MethodHandle UNDO = bind("GameState", "undo", 0);
+    private static final MethodHandle SOLVER = bind("Solvers", "uninstrumented", 1);
+    private static final MethodHandle SOLVE = bind("Solver", "solve", 2);
+    private static final MethodHandle LIMITS = bind("SearchLimits", "<init>", 2);
+    private static final MethodHandle NODES_EXPANDED = bind("SolverResult", "nodesExpanded", 0);
+    private static final MethodHandle IS_SOLVED = bind("SolverResult", "isSolved", 0);
+
+    // Direction constants in code order: left, right, up, down
+    static final Object[] DIRECTIONS = directions();
+
+    private Game() {
+    }
+
+    static char[][] readMatrix(String file) throws Throwable {
+        return (char[][]) READ_MATRIX.invokeExact(file);
+    }
+
+    // A text level or a pack entry such as "levels.pbl#3"
+    static char[][] readLevel(String level) throws Throwable {
+        return (char[][]) READ_LEVEL.invokeExact(level);
+    }
+
+    static void writePack(List<char[][]> levels, Path file) throws Throwable {
+        WRITE_PACK.invokeExact(levels, file);
+    }
+
+    static Object board(char[][] matrix) throws Throwable {
+        return (Object) BOARD.invokeExact(matrix);
+    }
+
+    static int stride(Object board) throws Throwable {
+        return (int) STRIDE.invokeExact(board);
+    }
+
+    static void initialState(Object board, long[] state) throws Throwable {
+        INITIAL_STATE.invokeExact(board, state);
+    }
+
+    static Object newMoveGenerator(Object board) throws Throwable {
+        return (Object) NEW_MOVE_GENERATOR.invokeExact(board);
+    }
+
+    static void load(Object generator, long[] state) throws Throwable {
+        LOAD.invokeExact(generator, state);
+    }
+
+    static boolean slide(Object generator, Object direction, long[] next) throws Throwable {
+        return (boolean) SLIDE.invokeExact(generator, direction, next);
+    }
+
+    static Object bitboard(char[][] matrix) throws Throwable {
+        return (Object) BITBOARD.invokeExact(matrix);
+    }
+
+    static Object gameState(char[][] matrix) throws Throwable {
+        return (Object) GAME_STATE.invokeExact(matrix);
+    }
+
+    static boolean move(Object game, Object direction) throws Throwable {
+        return (boolean) MOVE.invokeExact(game, direction);
+    }
+
+    static boolean undo(Object game) throws Throwable {
+        return (boolean) UNDO.invokeExact(game);
+    }
+
+    // Without the JFR event and MBean update of every solve, which are not what is measured
+    static Object solver(String name) throws Throwable {
+        return (Object) SOLVER.invokeExact(name);
+    }
+
+    static Object limits(long timeBudgetMillis, long maxNodes) throws Throwable {
+        return (Object) LIMITS.invokeExact(timeBudgetMillis, maxNodes);
+    }
+
+    static Object solve(Object solver, Object board, Object limits) throws Throwable {
+        return (Object) SOLVE.invokeExact(solver, board, limits);
+    }
+
+    static long nodesExpanded(Object result) throws Throwable {
+        return (long) NODES_EXPANDED.invokeExact(result);
+    }
+
+    static boolean isSolved(Object result) throws Throwable {
+        return (boolean) IS_SOLVED.invokeExact(result);
+    }
+
+    // Finds the public method (or constructor, as "<init>") with the given parameter count
+    private static MethodHandle bind(String className, String name, int parameters) {
+        try {
+            Class<?> type = Class.forName(className);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle handle = null;
+            Executable[] candidates = name.equals("<init>") ? type.getConstructors() : type.getMethods();
+            for (Executable candidate : candidates) {
+                if (candidate.getParameterCount() != parameters
+                        || (candidate instanceof Method && !candidate.getName().equals(name))) {
+                    continue;
+                }
+                handle = candidate instanceof Constructor
+                        ? lookup.unreflectConstructor((Constructor<?>) candidate)
+                        : lookup.unreflect((Method) candidate);
+                break;
+            }
+            if (handle == null) {
+                throw new NoSuchMethodException(className + "." + name + " with " + parameters + " parameter(s)");
+            }
+            return handle.asType(erase(handle.type()));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Replaces every game class in the signature with Object
+    private static MethodType erase(MethodType type) {
+        MethodType erased = type.changeReturnType(erase(type.returnType()));
+        for (int i = 0; i < type.parameterCount(); i++) {
+            erased = erased.changeParameterType(i, erase(type.parameterType(i)));
+        }
+        return erased;
+    }
+
+    private static Class<?> erase(Class<?> type) {
+        return type.getPackageName().isEmpty() ? Object.class : type;
+    }
+
+    private static Object[] directions() {
+        try {
+            return Class.forName("Direction").getEnumConstants();
+        } catch (ClassNotFoundException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
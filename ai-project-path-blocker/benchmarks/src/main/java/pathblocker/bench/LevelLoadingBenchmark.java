@@ -0,0 +1,87 @@
+package pathblocker.bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Reading a level, from its text file or from a level pack holding levels 01-10, and
+// turning the matrix into the game and solver representations
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelLoadingBenchmark {
+    @Param({ "1", "10" })
+    int level;
+
+    private String file;
+    private Path pack;
+    private String packEntry;
+    private char[][] matrix;
+    private Object board;
+    private long[] state;
+
+    @Setup
+    public void setup() throws Throwable {
+        file = Levels.file(level);
+        matrix = Game.readMatrix(file);
+        board = Game.board(matrix);
+        state = new long[Game.stride(board)];
+
+        List<char[][]> levels = new ArrayList<>();
+        for (int n = 1; n <= 10; n++) {
+            levels.add(Game.readMatrix(Levels.file(n)));
+        }
+        pack = Files.createTempFile("levels", ".pbl");
+        Game.writePack(levels, pack);
+        packEntry = pack + "#" + level;
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(pack);
+    }
+
+    @Benchmark
+    public char[][] readMatrixFromFile() throws Throwable {
+        return Game.readMatrix(file);
+    }
+
+    @Benchmark
+    public char[][] readFromPack() throws Throwable {
+        return Game.readLevel(packEntry);
+    }
+
+    // What used to be gridToBitSet: the packed start state for the solvers
+    @Benchmark
+    public long[] initialState() throws Throwable {
+        Game.initialState(board, state);
+        return state;
+    }
+
+    @Benchmark
+    public Object boardFromMatrix() throws Throwable {
+        return Game.board(matrix);
+    }
+
+    @Benchmark
+    public Object bitboardFromMatrix() throws Throwable {
+        return Game.bitboard(matrix);
+    }
+}
@@ -0,0 +1,32 @@
+package pathblocker.bench;
+
+import java.nio.file.Paths;
+import java.util.Random;
+
+// Level inputs shared by the benchmarks
+final class Levels {
+    private Levels() {
+    }
+
+    // levels/levelNN.txt, relative to -Dpathblocker.levels (default "levels")
+    static String file(int level) {
+        return Paths.get(System.getProperty("pathblocker.levels", "levels"), String.format("level%02d.txt", level))
+                .toString();
+    }
+
+    // A size x size level with a wall border, random inner walls at the given density, the
+    // player in one corner and the goal in the opposite one. The seed keeps runs comparable.
+    static char[][] synthetic(int size, double wallDensity, long seed) {
+        Random random = new Random(seed);
+        char[][] matrix = new char[size][size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                boolean border = x == 0 || y == 0 || x == size - 1 || y == size - 1;
+                matrix[y][x] = border || random.nextDouble() < wallDensity ? '1' : '0';
+            }
+        }
+        matrix[1][1] = 'X';
+        matrix[size - 2][size - 2] = 'Y';
+        return matrix;
+    }
+}
@@ -0,0 +1,73 @@
+package pathblocker.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// How the engine scales with the board size on synthetic levels. Larger boards are rarely
+// solvable in a benchmark iteration, so the search runs a fixed number of expansions:
+// the score then shows the cost per expansion, which grows with the packed state size.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalingBenchmark {
+    @Param({ "16", "32", "64", "128" })
+    int size;
+
+    @Param({ "0.2" })
+    double wallDensity;
+
+    @Param({ "bfs", "astar" })
+    String solver;
+
+    @Param({ "2000" })
+    long nodes;
+
+    private Object board;
+    private Object search;
+    private Object generator;
+    private long[] start;
+    private long[] next;
+
+    @Setup
+    public void setup() throws Throwable {
+        board = Game.board(Levels.synthetic(size, wallDensity, 42));
+        search = Game.solver(solver);
+        generator = Game.newMoveGenerator(board);
+        start = new long[Game.stride(board)];
+        next = new long[start.length];
+        Game.initialState(board, start);
+    }
+
+    @Benchmark
+    public long boundedSearch() throws Throwable {
+        return Game.nodesExpanded(Game.solve(search, board, Game.limits(0, nodes)));
+    }
+
+    @Benchmark
+    public void successors(Blackhole blackhole) throws Throwable {
+        Game.load(generator, start);
+        for (Object d : Game.DIRECTIONS) {
+            blackhole.consume(Game.slide(generator, d, next));
+        }
+    }
+
+    @Benchmark
+    public long[] initialState() throws Throwable {
+        Game.initialState(board, start);
+        return start;
+    }
+}
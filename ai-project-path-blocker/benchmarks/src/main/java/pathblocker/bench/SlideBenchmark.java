@@ -0,0 +1,62 @@
+package pathblocker.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Move generation from the level's start position, as the game and the solvers do it
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlideBenchmark {
+    @Param({ "1", "5", "10" })
+    int level;
+
+    private Object game;
+    private Object generator;
+    private long[] start;
+    private long[] next;
+
+    @Setup
+    public void setup() throws Throwable {
+        char[][] matrix = Game.readMatrix(Levels.file(level));
+        game = Game.gameState(matrix);
+        Object board = Game.board(matrix);
+        generator = Game.newMoveGenerator(board);
+        start = new long[Game.stride(board)];
+        next = new long[start.length];
+        Game.initialState(board, start);
+    }
+
+    // movePlayer: GameState move in every direction, each undone again
+    @Benchmark
+    public void gameSlide(Blackhole blackhole) throws Throwable {
+        for (Object d : Game.DIRECTIONS) {
+            if (Game.move(game, d)) {
+                blackhole.consume(Game.undo(game));
+            }
+        }
+    }
+
+    // The solver's successor generation, including its goal reachability check
+    @Benchmark
+    public void solverSuccessors(Blackhole blackhole) throws Throwable {
+        Game.load(generator, start);
+        for (Object d : Game.DIRECTIONS) {
+            blackhole.consume(Game.slide(generator, d, next));
+        }
+    }
+}
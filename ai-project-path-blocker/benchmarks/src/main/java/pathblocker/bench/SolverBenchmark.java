@@ -0,0 +1,49 @@
+package pathblocker.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Full solves of the shipped levels, one benchmark per level and solver. Solvers are
+// called directly, the solution cache is not involved.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+    @Param({ "1", "2", "3", "4", "5", "6", "7", "8", "9", "10" })
+    int level;
+
+    @Param({ "bfs", "macro-bfs", "astar", "idastar" })
+    String solver;
+
+    private Object board;
+    private Object search;
+    private Object limits;
+
+    @Setup
+    public void setup() throws Throwable {
+        board = Game.board(Game.readMatrix(Levels.file(level)));
+        search = Game.solver(solver);
+        limits = Game.limits(0, 0);
+        if (!Game.isSolved(Game.solve(search, board, limits))) {
+            throw new IllegalStateException("Level " + level + " has no solution");
+        }
+    }
+
+    @Benchmark
+    public Object solve() throws Throwable {
+        return Game.solve(search, board, limits);
+    }
+}
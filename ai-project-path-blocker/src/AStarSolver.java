@@ -0,0 +1,117 @@
+import java.util.Arrays;
+
+// Best-first search ordered by f = g + h, with h = Board.goalDistanceBound. The bound is
+// consistent, so the first 'Y' taken off the open list is reached with the fewest moves.
+// f only takes small integer values, so the open list is a bucket queue per f.
+//
+// With a weight w above 1, f = g + w * h: states that look close to a 'Y' are taken
+// earlier, and the path found is at most w times as long as the shortest one.
+public class AStarSolver implements Solver {
+    private final int weight;
+
+    public AStarSolver() {
+        this(1);
+    }
+
+    public AStarSolver(int weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("A* weight must be at least 1, got " + weight);
+        }
+        this.weight = weight;
+    }
+
+    // Weighted A* with the weight in -Dpathblocker.astarWeight, 2 by default
+    public static AStarSolver weightedFromSystemProperties() {
+        return new AStarSolver(Math.max(2, Integer.getInteger("pathblocker.astarWeight", 2)));
+    }
+
+    @Override
+    public String name() {
+        return weight == 1 ? "astar" : "wastar";
+    }
+
+    // Another weight can give another path, and it is 1 for plain A*
+    @Override
+    public int version() {
+        return weight;
+    }
+
+    @Override
+    public double optimalityBound() {
+        return weight;
+    }
+
+    @Override
+    public SolverResult solve(Board board, SearchLimits limits) {
+        long startTime = System.nanoTime();
+
+        int stride = board.stride();
+        StateTable table = new StateTable(stride, 1 << 10);
+        int[] costs = new int[1 << 10]; // Best known g per state index
+        IntBuckets open = new IntBuckets();
+
+        MoveGenerator moves = board.newMoveGenerator();
+        long[] current = new long[stride];
+        long[] next = new long[stride];
+
+        board.initialState(current);
+        int root = table.addRoot(current, board.hash(current));
+        costs[root] = 0;
+        open.push(weight * board.goalDistanceBound((int) current[0]), root);
+
+        long expanded = 0;
+        long generated = 0;
+        long duplicates = 0;
+        int peakFrontier = 1;
+        while (!open.isEmpty()) {
+            peakFrontier = Math.max(peakFrontier, open.size());
+            int f = open.minKey();
+            int index = open.pop();
+            table.get(index, current);
+            int g = costs[index];
+            int position = (int) current[0];
+            if (g + weight * board.goalDistanceBound(position) != f) {
+                continue; // Stale entry, the state was reopened with a lower cost
+            }
+            expanded++;
+
+            if (board.isGoal(position)) {
+                return new SolverResult(name(), table.pathTo(index), expanded, System.nanoTime() - startTime)
+                        .withPeakMemoryBytes(table.memoryBytes() + costs.length * 4L + open.memoryBytes())
+                        .withStats(SearchStats.of(generated, duplicates, peakFrontier, table));
+            }
+            if (limits.shouldStop(expanded)) {
+                return SolverResult.stopped(name(), limits, expanded, System.nanoTime() - startTime)
+                        .withPeakMemoryBytes(table.memoryBytes() + costs.length * 4L + open.memoryBytes())
+                        .withStats(SearchStats.of(generated, duplicates, peakFrontier, table));
+            }
+
+            moves.load(current, table.hash(index));
+            for (Direction d : Direction.values()) {
+                if (!moves.slide(d, next))
+                    continue;
+                generated++;
+                long hash = moves.successorHash();
+                int child = table.indexOf(next, hash);
+                if (child < 0) {
+                    child = table.add(next, hash, index, d.code());
+                    if (child == costs.length) {
+                        costs = Arrays.copyOf(costs, costs.length * 2);
+                    }
+                } else if (costs[child] <= g + 1) {
+                    duplicates++;
+                    continue;
+                } else {
+                    duplicates++; // Reopened with a lower cost
+                    table.relink(child, index, d.code());
+                }
+                costs[child] = g + 1;
+                open.push(g + 1 + weight * board.goalDistanceBound((int) next[0]), child);
+            }
+        }
+
+        return new SolverResult(name(), null, expanded, System.nanoTime() - startTime)
+                .withPeakMemoryBytes(table.memoryBytes() + costs.length * 4L + open.memoryBytes())
+                .withStats(SearchStats.of(generated, duplicates, peakFrontier, table));
+    }
+}
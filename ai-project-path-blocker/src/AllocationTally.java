@@ -0,0 +1,45 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+// Heap allocated by a solve that runs on several threads. The JVM only counts allocation
+// per thread, so every thread adds what it allocated between begin and end. A thread the
+// JVM cannot measure, such as a virtual thread, makes the whole total unknown rather than
+// too low.
+final class AllocationTally {
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final LongAdder bytes = new LongAdder();
+    private volatile boolean unmeasured;
+
+    // Call on the thread that is about to do work, and hand the value to end on that thread
+    long begin() {
+        return currentThreadBytes();
+    }
+
+    void end(long begin) {
+        long end = currentThreadBytes();
+        if (begin < 0 || end < 0) {
+            unmeasured = true;
+        } else {
+            bytes.add(end - begin);
+        }
+    }
+
+    // Bytes of every begin/end pair so far, -1 if any thread could not be measured
+    long total() {
+        return unmeasured ? -1 : bytes.sum();
+    }
+
+    // Bytes the calling thread allocated since it started, -1 if that cannot be measured
+    static long currentThreadBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+}
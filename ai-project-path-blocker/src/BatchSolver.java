@@ -0,0 +1,268 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+// Headless entry point that solves a set of level files and reports the results as CSV or
+// JSON. It only touches the solver classes, never Main, so no AWT or Swing class is loaded.
+//
+// Usage: java BatchSolver <directory|glob|pack.pbl> [--solver portfolio] [--threads N] [--format csv|json]
+//            [--output file] [--time-budget ms] [--node-budget nodes]
+//
+// A directory means every levelNN.txt in it; a glob such as levels/level0*.txt is matched
+// against the file names of its parent directory. A level pack (.pbl) means all its levels.
+public class BatchSolver {
+    private String source;
+    private String solverName = Solvers.DEFAULT;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String format = "csv";
+    private String output;
+    private long timeBudgetMillis;
+    private long nodeBudget;
+
+    // Outcome for one level file
+    static class LevelResult {
+        final String level;
+        final SolverResult result;
+        final String error;
+
+        LevelResult(String level, SolverResult result, String error) {
+            this.level = level;
+            this.result = result;
+            this.error = error;
+        }
+
+        // File name, or pack file name and number
+        String name() {
+            return Paths.get(level).getFileName().toString();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        BatchSolver batch = new BatchSolver();
+        try {
+            batch.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java BatchSolver <directory|glob|pack.pbl> [--solver " + String.join("|", Solvers.names())
+                    + "] [--threads N] [--format csv|json] [--output file] [--time-budget ms] [--node-budget nodes]");
+            System.exit(2);
+        }
+        List<LevelResult> results = batch.solveAll(findLevels(batch.source));
+        printPortfolioWins(results);
+        if (batch.output == null) {
+            batch.write(results, System.out);
+        } else {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(Paths.get(batch.output)), false, "UTF-8")) {
+                batch.write(results, out);
+            }
+        }
+    }
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                if (source != null) {
+                    throw new IllegalArgumentException("Only one level directory or glob can be given");
+                }
+                source = arg;
+                continue;
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--solver" -> {
+                    Solvers.byName(value); // Fails early on unknown names
+                    solverName = value;
+                }
+                case "--threads" -> threads = Math.max(1, Integer.parseInt(value));
+                case "--format" -> {
+                    if (!value.equals("csv") && !value.equals("json")) {
+                        throw new IllegalArgumentException("Unknown format '" + value + "', expected csv or json");
+                    }
+                    format = value;
+                }
+                case "--output" -> output = value;
+                case "--time-budget" -> timeBudgetMillis = Long.parseLong(value);
+                case "--node-budget" -> nodeBudget = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        if (source == null) {
+            throw new IllegalArgumentException("No level directory or glob given");
+        }
+    }
+
+    // Level names as LevelLoader.read takes them, in file and pack order
+    static List<String> findLevels(String source) throws IOException {
+        Path path = Paths.get(source);
+        List<String> levels = new ArrayList<>();
+        if (Files.isRegularFile(path) && source.toLowerCase().endsWith(LevelPack.EXTENSION)) {
+            int count = LevelLoader.pack(path).size();
+            for (int i = 1; i <= count; i++) {
+                levels.add(source + "#" + i);
+            }
+            return levels;
+        }
+        Path directory;
+        String pattern;
+        if (Files.isDirectory(path)) {
+            directory = path;
+            pattern = "level*.txt";
+        } else {
+            directory = path.getParent() != null ? path.getParent() : Paths.get(".");
+            pattern = path.getFileName().toString();
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, pattern)) {
+            for (Path file : stream) {
+                if (Files.isRegularFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(null);
+        for (Path file : files) {
+            levels.add(file.toString());
+        }
+        return levels;
+    }
+
+    // Solves every level on a fixed pool of worker threads, results in file order
+    List<LevelResult> solveAll(List<String> levels) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, levels.size())));
+        try {
+            List<Future<LevelResult>> futures = new ArrayList<>();
+            for (String level : levels) {
+                futures.add(workers.submit(() -> solve(level)));
+            }
+            List<LevelResult> results = new ArrayList<>();
+            for (int i = 0; i < levels.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(new LevelResult(levels.get(i), null, String.valueOf(e.getCause())));
+                }
+            }
+            return results;
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    private LevelResult solve(String level) {
+        try {
+            char[][] matrix = LevelLoader.read(level);
+            Board board = Board.fromMatrix(matrix);
+            if (board == null) {
+                return new LevelResult(level, null, "No starting position 'X' found");
+            }
+            SearchLimits limits = new SearchLimits(timeBudgetMillis, nodeBudget);
+            return new LevelResult(level, Solvers.byName(solverName).solve(board, limits), null);
+        } catch (IOException e) {
+            return new LevelResult(level, null, e.toString());
+        }
+    }
+
+    // Summary on stderr of which member won the races, when the portfolio solver was used
+    private static void printPortfolioWins(List<LevelResult> results) {
+        Map<String, Integer> wins = new TreeMap<>();
+        for (LevelResult level : results) {
+            String winner = level.result != null ? level.result.winner() : null;
+            if (winner != null) {
+                wins.merge(winner, 1, Integer::sum);
+            }
+        }
+        if (!wins.isEmpty()) {
+            System.err.println("Portfolio wins: " + wins.entrySet().stream().map(e -> e.getKey() + " " + e.getValue())
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private void write(List<LevelResult> results, PrintStream out) {
+        if (format.equals("json")) {
+            writeJson(results, out);
+        } else {
+            writeCsv(results, out);
+        }
+        out.flush();
+    }
+
+    private static void writeCsv(List<LevelResult> results, PrintStream out) {
+        out.println("level,solver,status,moves,path,nodes_expanded,time_ms,peak_memory_bytes,error");
+        for (LevelResult level : results) {
+            SolverResult result = level.result;
+            if (result == null) {
+                out.println(level.name() + ",,ERROR,,,,,," + csv(level.error));
+                continue;
+            }
+            out.println(level.name() + "," + result.solverName() + "," + result.status() + ","
+                    + (result.isSolved() ? result.path().size() : "") + "," + pathString(result) + ","
+                    + result.nodesExpanded() + "," + String.format(Locale.ROOT, "%.3f", result.elapsedNanos() / 1e6) + ","
+                    + result.peakMemoryBytes() + ",");
+        }
+    }
+
+    static void writeJson(List<LevelResult> results, PrintStream out) {
+        out.println("[");
+        for (int i = 0; i < results.size(); i++) {
+            LevelResult level = results.get(i);
+            SolverResult result = level.result;
+            StringBuilder json = new StringBuilder("  {\"level\": ").append(json(level.name()));
+            if (result == null) {
+                json.append(", \"status\": \"ERROR\", \"error\": ").append(json(level.error));
+            } else {
+                json.append(", \"solver\": ").append(json(result.solverName()));
+                if (result.winner() != null) {
+                    json.append(", \"winner\": ").append(json(result.winner()));
+                }
+                if (result.isCached()) {
+                    json.append(", \"cached\": true");
+                }
+                json.append(", \"status\": ").append(json(result.status().toString()));
+                if (result.isSolved()) {
+                    json.append(", \"moves\": ").append(result.path().size())
+                            .append(", \"path\": [")
+                            .append(result.path().stream().map(d -> json(d.toString())).collect(Collectors.joining(", ")))
+                            .append("]");
+                }
+                json.append(", \"nodesExpanded\": ").append(result.nodesExpanded())
+                        .append(", \"timeMs\": ").append(String.format(Locale.ROOT, "%.3f", result.elapsedNanos() / 1e6))
+                        .append(", \"peakMemoryBytes\": ").append(result.peakMemoryBytes());
+            }
+            json.append(i + 1 < results.size() ? "}," : "}");
+            out.println(json);
+        }
+        out.println("]");
+    }
+
+    private static String pathString(SolverResult result) {
+        if (!result.isSolved()) {
+            return "";
+        }
+        return result.path().stream().map(Direction::toString).collect(Collectors.joining(" "));
+    }
+
+    private static String csv(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String json(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
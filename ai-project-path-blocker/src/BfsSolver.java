@@ -0,0 +1,65 @@
+import java.util.List;
+
+// Breadth-first search over packed states. Every slide costs one move, so the first
+// time a 'Y' is dequeued its path is a shortest one.
+public class BfsSolver implements Solver {
+    @Override
+    public String name() {
+        return "bfs";
+    }
+
+    @Override
+    public SolverResult solve(Board board, SearchLimits limits) {
+        // Start time recording before the BFS starts
+        long startTime = System.nanoTime();
+
+        // Every state is packed as [position, region bits...] and kept in the StateTable,
+        // whose insertion order is the BFS order, so the table itself is the queue.
+        // Each state only remembers its parent and direction, the path is rebuilt at the goal.
+        int stride = board.stride();
+        StateTable visited = new StateTable(stride, 1 << 10);
+
+        MoveGenerator moves = board.newMoveGenerator();
+        long[] current = new long[stride];
+        long[] next = new long[stride];
+
+        board.initialState(current);
+        visited.addRoot(current, board.hash(current));
+        long generated = 0;
+        long duplicates = 0;
+        int peakFrontier = 1;
+
+        for (int head = 0; head < visited.size(); head++) {
+            visited.get(head, current);
+            peakFrontier = Math.max(peakFrontier, visited.size() - head); // States still queued
+
+            if (board.isGoal((int) current[0])) {
+                List<Direction> path = visited.pathTo(head);
+                return new SolverResult(name(), path, head + 1, System.nanoTime() - startTime)
+                        .withPeakMemoryBytes(visited.memoryBytes())
+                        .withStats(SearchStats.of(generated, duplicates, peakFrontier, visited));
+            }
+            if (limits.shouldStop(head + 1)) {
+                return SolverResult.stopped(name(), limits, head + 1, System.nanoTime() - startTime)
+                        .withPeakMemoryBytes(visited.memoryBytes())
+                        .withStats(SearchStats.of(generated, duplicates, peakFrontier, visited));
+            }
+
+            moves.load(current, visited.hash(head));
+            for (Direction d : Direction.values()) {
+                // Check if movement is possible (did we move?)
+                if (!moves.slide(d, next))
+                    continue;
+                generated++;
+                if (visited.add(next, moves.successorHash(), head, d.code()) < 0) {
+                    duplicates++;
+                }
+            }
+        }
+
+        // No path found
+        return new SolverResult(name(), null, visited.size(), System.nanoTime() - startTime)
+                .withPeakMemoryBytes(visited.memoryBytes())
+                .withStats(SearchStats.of(generated, duplicates, peakFrontier, visited));
+    }
+}
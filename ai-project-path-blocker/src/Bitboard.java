@@ -0,0 +1,188 @@
+import java.util.Arrays;
+
+// Bitboard model of a grid shared by the game and the solvers. Free cells and 'Y' cells
+// are each kept twice: row-major (bit y * cols + x) and column-major (bit x * rows + y),
+// so the cells of any row or column are consecutive bits. The end of a slide is then a
+// single bit scan in the matching layout instead of a walk over every cell.
+public class Bitboard {
+    private final int rows;
+    private final int cols;
+    private final long[] rowFree;
+    private final long[] colFree;
+    private final long[] rowGoal;
+    private final long[] colGoal;
+
+    public Bitboard(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        int words = (rows * cols + 63) / 64;
+        this.rowFree = new long[words];
+        this.colFree = new long[words];
+        this.rowGoal = new long[words];
+        this.colGoal = new long[words];
+    }
+
+    // Builds the bitboard of a level matrix: '1' is a wall, 'Y' a goal, anything else is free
+    public static Bitboard fromMatrix(char[][] matrix) {
+        Bitboard grid = new Bitboard(matrix.length, matrix[0].length);
+        for (int y = 0; y < grid.rows; y++) {
+            for (int x = 0; x < grid.cols; x++) {
+                if (matrix[y][x] != '1') {
+                    grid.setFree(x, y);
+                }
+                if (matrix[y][x] == 'Y') {
+                    grid.setGoal(x, y);
+                }
+            }
+        }
+        return grid;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public boolean isFree(int x, int y) {
+        return Bits.get(rowFree, 0, y * cols + x);
+    }
+
+    public boolean isGoal(int x, int y) {
+        return Bits.get(rowGoal, 0, y * cols + x);
+    }
+
+    public void setFree(int x, int y) {
+        Bits.set(rowFree, 0, y * cols + x);
+        Bits.set(colFree, 0, x * rows + y);
+    }
+
+    public void setWall(int x, int y) {
+        Bits.clear(rowFree, 0, y * cols + x);
+        Bits.clear(colFree, 0, x * rows + y);
+    }
+
+    public void setGoal(int x, int y) {
+        Bits.set(rowGoal, 0, y * cols + x);
+        Bits.set(colGoal, 0, x * rows + y);
+    }
+
+    public void clearGoal(int x, int y) {
+        Bits.clear(rowGoal, 0, y * cols + x);
+        Bits.clear(colGoal, 0, x * rows + y);
+    }
+
+    // The row-major free words, for copying into packed states
+    long[] rowWords() {
+        return rowFree;
+    }
+
+    public boolean hasGoal() {
+        for (long word : rowGoal) {
+            if (word != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Replaces the free cells with the row-major bits stored in words[base...] and
+    // rebuilds the column-major copy from them
+    public void loadFree(long[] words, int base) {
+        System.arraycopy(words, base, rowFree, 0, rowFree.length);
+        Arrays.fill(colFree, 0L);
+        for (int w = 0; w < rowFree.length; w++) {
+            long word = rowFree[w];
+            while (word != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                Bits.set(colFree, 0, (i % cols) * rows + i / cols);
+                word &= word - 1;
+            }
+        }
+    }
+
+    // Where a slide from (x, y) ends: at the last free cell before a wall or the border,
+    // or on the first 'Y' along the way. Returns the row-major index of that cell, which
+    // is the start cell itself when the player cannot move in that direction.
+    public int slideEnd(int x, int y, Direction d) {
+        switch (d) {
+            case RIGHT: {
+                int start = y * cols + x;
+                int rowEnd = y * cols + cols;
+                int stop = Bits.nextClear(rowFree, 0, start + 1, rowEnd) - 1;
+                int goal = Bits.nextSet(rowGoal, 0, start + 1, rowEnd);
+                return Math.min(stop, goal);
+            }
+            case LEFT: {
+                int start = y * cols + x;
+                int rowStart = y * cols;
+                int stop = Bits.prevClear(rowFree, 0, start - 1, rowStart) + 1;
+                int goal = Bits.prevSet(rowGoal, 0, start - 1, rowStart);
+                return Math.max(stop, goal);
+            }
+            case DOWN: {
+                int start = x * rows + y;
+                int colEnd = x * rows + rows;
+                int stop = Bits.nextClear(colFree, 0, start + 1, colEnd) - 1;
+                int goal = Bits.nextSet(colGoal, 0, start + 1, colEnd);
+                return (Math.min(stop, goal) - x * rows) * cols + x;
+            }
+            default: {
+                int start = x * rows + y;
+                int colStart = x * rows;
+                int stop = Bits.prevClear(colFree, 0, start - 1, colStart) + 1;
+                int goal = Bits.prevSet(colGoal, 0, start - 1, colStart);
+                return (Math.max(stop, goal) - x * rows) * cols + x;
+            }
+        }
+    }
+
+    // Turns every cell from (x, y) up to, but not including, the end of the slide into a
+    // wall. In the layout that matches the direction this is one masked write per word.
+    public void markTrail(int x, int y, int end) {
+        setTrail(x, y, end, false);
+    }
+
+    // Undoes markTrail
+    public void clearTrail(int x, int y, int end) {
+        setTrail(x, y, end, true);
+    }
+
+    private void setTrail(int x, int y, int end, boolean free) {
+        int ex = end % cols;
+        int ey = end / cols;
+        if (ey == y) {
+            int from = Math.min(x, ex + 1);
+            int to = Math.max(x + 1, ex);
+            if (free) {
+                Bits.setRange(rowFree, 0, y * cols + from, y * cols + to);
+            } else {
+                Bits.clearRange(rowFree, 0, y * cols + from, y * cols + to);
+            }
+            for (int i = from; i < to; i++) {
+                if (free) {
+                    Bits.set(colFree, 0, i * rows + y);
+                } else {
+                    Bits.clear(colFree, 0, i * rows + y);
+                }
+            }
+        } else {
+            int from = Math.min(y, ey + 1);
+            int to = Math.max(y + 1, ey);
+            if (free) {
+                Bits.setRange(colFree, 0, x * rows + from, x * rows + to);
+            } else {
+                Bits.clearRange(colFree, 0, x * rows + from, x * rows + to);
+            }
+            for (int i = from; i < to; i++) {
+                if (free) {
+                    Bits.set(rowFree, 0, i * cols + x);
+                } else {
+                    Bits.clear(rowFree, 0, i * cols + x);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+// Word-level helpers for bit sets stored in long[] arrays. Bit i lives in
+// words[base + (i >>> 6)], so the same helpers work on packed states whose bits start
+// after a header word. Ranges are half open, [from, to).
+final class Bits {
+    private Bits() {
+    }
+
+    static boolean get(long[] words, int base, int i) {
+        return (words[base + (i >>> 6)] & (1L << i)) != 0;
+    }
+
+    static void set(long[] words, int base, int i) {
+        words[base + (i >>> 6)] |= 1L << i;
+    }
+
+    static void clear(long[] words, int base, int i) {
+        words[base + (i >>> 6)] &= ~(1L << i);
+    }
+
+    // First set bit in [from, to), or to if there is none
+    static int nextSet(long[] words, int base, int from, int to) {
+        if (from >= to) {
+            return to;
+        }
+        int w = from >>> 6;
+        long word = words[base + w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                return Math.min(i, to);
+            }
+            if (++w << 6 >= to) {
+                return to;
+            }
+            word = words[base + w];
+        }
+    }
+
+    // First clear bit in [from, to), or to if there is none
+    static int nextClear(long[] words, int base, int from, int to) {
+        if (from >= to) {
+            return to;
+        }
+        int w = from >>> 6;
+        long word = ~words[base + w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                return Math.min(i, to);
+            }
+            if (++w << 6 >= to) {
+                return to;
+            }
+            word = ~words[base + w];
+        }
+    }
+
+    // Last set bit in [to, from], scanning down from from, or to - 1 if there is none
+    static int prevSet(long[] words, int base, int from, int to) {
+        if (from < to) {
+            return to - 1;
+        }
+        int w = from >>> 6;
+        long word = words[base + w] & (-1L >>> (63 - (from & 63)));
+        while (true) {
+            if (word != 0) {
+                int i = (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+                return Math.max(i, to - 1);
+            }
+            if (w == 0 || (w << 6) <= to) {
+                return to - 1;
+            }
+            word = words[base + --w];
+        }
+    }
+
+    // Last clear bit in [to, from], scanning down from from, or to - 1 if there is none
+    static int prevClear(long[] words, int base, int from, int to) {
+        if (from < to) {
+            return to - 1;
+        }
+        int w = from >>> 6;
+        long word = ~words[base + w] & (-1L >>> (63 - (from & 63)));
+        while (true) {
+            if (word != 0) {
+                int i = (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+                return Math.max(i, to - 1);
+            }
+            if (w == 0 || (w << 6) <= to) {
+                return to - 1;
+            }
+            word = ~words[base + --w];
+        }
+    }
+
+    // Sets every bit in [from, to) with one OR per word
+    static void setRange(long[] words, int base, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[base + first] |= firstMask & lastMask;
+            return;
+        }
+        words[base + first] |= firstMask;
+        for (int w = first + 1; w < last; w++) {
+            words[base + w] = -1L;
+        }
+        words[base + last] |= lastMask;
+    }
+
+    // Clears every bit in [from, to) with one AND per word
+    static void clearRange(long[] words, int base, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[base + first] &= ~(firstMask & lastMask);
+            return;
+        }
+        words[base + first] &= ~firstMask;
+        for (int w = first + 1; w < last; w++) {
+            words[base + w] = 0L;
+        }
+        words[base + last] &= ~lastMask;
+    }
+}
@@ -0,0 +1,249 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Immutable description of a level as the solvers see it. A search state is the array
+// [position, region bits...] where the region is the set of free cells the player can
+// still reach (bit index = y * cols + x). Cells outside the region can never matter
+// again, so two grids that only differ there are the same state. Slides are produced
+// by a MoveGenerator, one per searching thread.
+//
+// States are hashed Zobrist style: the hash is the XOR of a random key for the player
+// position and one for every cell of the region. A slide only changes the position, the
+// trail and the cells it cuts off, so the MoveGenerator updates the hash of a successor
+// from its parent's by XORing those keys instead of hashing all of its words again.
+public class Board {
+    private final char[][] matrix;
+    private final int rows;
+    private final int cols;
+    private final int startX;
+    private final int startY;
+    private final int stride;
+    private final byte[] goalBounds; // goalDistanceBound per position
+    private final long[] goalMask; // 'Y' cells, same layout as the region words
+    private final long[] deadEnds; // See computeDeadEnds, same layout as goalMask
+    private final long[] positionKeys; // Zobrist key per player position
+    private final long[] cellKeys; // Zobrist key per region cell
+
+    private Board(char[][] matrix, int startX, int startY) {
+        this.matrix = matrix;
+        this.rows = matrix.length;
+        this.cols = matrix[0].length;
+        this.startX = startX;
+        this.startY = startY;
+        this.stride = 1 + (rows * cols + 63) / 64;
+        this.goalBounds = computeGoalBounds();
+        this.goalMask = new long[stride - 1];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (matrix[i][j] == 'Y') {
+                    int index = i * cols + j;
+                    goalMask[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+        this.deadEnds = computeDeadEnds();
+        // Fixed seed, so a board hashes its states the same way in every run
+        SplittableRandom random = new SplittableRandom(0x9E3779B97F4A7C15L);
+        this.positionKeys = new long[rows * cols];
+        this.cellKeys = new long[rows * cols];
+        for (int i = 0; i < rows * cols; i++) {
+            positionKeys[i] = random.nextLong();
+            cellKeys[i] = random.nextLong();
+        }
+    }
+
+    // Builds a board from a level matrix as read by readMatrixFromFile. The matrix is
+    // copied, the starting point 'X' becomes walkable. Returns null if there is no 'X'.
+    public static Board fromMatrix(char[][] level) {
+        char[][] matrix = new char[level.length][];
+        int startX = -1;
+        int startY = -1;
+        for (int i = 0; i < level.length; i++) {
+            matrix[i] = level[i].clone();
+            for (int j = 0; j < matrix[i].length; j++) {
+                if (matrix[i][j] == 'X' && startX < 0) {
+                    matrix[i][j] = '0'; // Make the starting point walkable
+                    startX = j;
+                    startY = i;
+                }
+            }
+        }
+        if (startX < 0) {
+            return null;
+        }
+        return new Board(matrix, startX, startY);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int startX() {
+        return startX;
+    }
+
+    public int startY() {
+        return startY;
+    }
+
+    public char cell(int x, int y) {
+        return matrix[y][x];
+    }
+
+    // Number of long words in a packed state
+    public int stride() {
+        return stride;
+    }
+
+    // Fills state with the packed start state of the level
+    public void initialState(long[] state) {
+        Arrays.fill(state, 0, stride, 0L);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (matrix[i][j] != '1') {
+                    setFree(state, i * cols + j);
+                }
+            }
+        }
+        state[0] = startY * cols + startX;
+        newMoveGenerator().restrictToReachable(state);
+    }
+
+    // Zobrist hash of a packed state computed from scratch, for the root of a search. Every
+    // other state gets its hash from MoveGenerator.successorHash.
+    public long hash(long[] state) {
+        long hash = positionKeys[(int) state[0]];
+        for (int w = 1; w < stride; w++) {
+            for (long bits = state[w]; bits != 0; bits &= bits - 1) {
+                hash ^= cellKeys[((w - 1) << 6) + Long.numberOfTrailingZeros(bits)];
+            }
+        }
+        return hash;
+    }
+
+    long positionKey(int position) {
+        return positionKeys[position];
+    }
+
+    long cellKey(int index) {
+        return cellKeys[index];
+    }
+
+    public MoveGenerator newMoveGenerator() {
+        return new MoveGenerator(this);
+    }
+
+    public boolean isGoal(int position) {
+        return matrix[position / cols][position % cols] == 'Y';
+    }
+
+    // True if a 'Y' lies inside the reachable region of the state
+    public boolean canReachGoal(long[] state) {
+        for (int i = 0; i < goalMask.length; i++) {
+            if ((state[1 + i] & goalMask[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // True if a slide that ends on position can never lead to a 'Y', see computeDeadEnds
+    public boolean isDeadEnd(int position) {
+        return (deadEnds[position >>> 6] & (1L << position)) != 0;
+    }
+
+    // Lower bound on the slides still needed from position: 0 on a 'Y', 1 when a 'Y'
+    // shares its row or column, 2 otherwise, since every slide keeps either x or y.
+    public int goalDistanceBound(int position) {
+        return goalBounds[position];
+    }
+
+    private byte[] computeGoalBounds() {
+        boolean[] goalRow = new boolean[rows];
+        boolean[] goalCol = new boolean[cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (matrix[i][j] == 'Y') {
+                    goalRow[i] = true;
+                    goalCol[j] = true;
+                }
+            }
+        }
+        byte[] bounds = new byte[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (matrix[i][j] == 'Y') {
+                    bounds[i * cols + j] = 0;
+                } else if (goalRow[i] || goalCol[j]) {
+                    bounds[i * cols + j] = 1;
+                } else {
+                    bounds[i * cols + j] = 2;
+                }
+            }
+        }
+        return bounds;
+    }
+
+    // Dead ends are found by repeatedly peeling free cells with at most one free neighbour
+    // left, never a 'Y' or the start. Every group of peeled cells is a tree joined to the
+    // rest of the board by a single edge, so a slide that ends inside one came in over that
+    // edge and its trail has closed the only way out, leaving the player shut in with no
+    // 'Y'. Rejecting such a slide by its end cell saves the flood fill that would find it.
+    private long[] computeDeadEnds() {
+        int[] degree = new int[rows * cols];
+        int[] queue = new int[rows * cols];
+        int tail = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (matrix[i][j] == '1') {
+                    continue;
+                }
+                int index = i * cols + j;
+                degree[index] = (j > 0 && matrix[i][j - 1] != '1' ? 1 : 0) + (j < cols - 1 && matrix[i][j + 1] != '1' ? 1 : 0)
+                        + (i > 0 && matrix[i - 1][j] != '1' ? 1 : 0) + (i < rows - 1 && matrix[i + 1][j] != '1' ? 1 : 0);
+                if (degree[index] <= 1 && isPeelable(index)) {
+                    queue[tail++] = index;
+                }
+            }
+        }
+        long[] dead = new long[stride - 1];
+        for (int head = 0; head < tail; head++) {
+            int index = queue[head];
+            dead[index >>> 6] |= 1L << index;
+            int x = index % cols;
+            int y = index / cols;
+            for (Direction d : Direction.values()) {
+                int nx = x + d.dx;
+                int ny = y + d.dy;
+                if (nx < 0 || ny < 0 || nx >= cols || ny >= rows || matrix[ny][nx] == '1') {
+                    continue;
+                }
+                int neighbour = ny * cols + nx;
+                if ((dead[neighbour >>> 6] & (1L << neighbour)) == 0 && --degree[neighbour] == 1 && isPeelable(neighbour)) {
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        return dead;
+    }
+
+    private boolean isPeelable(int index) {
+        return index != startY * cols + startX && matrix[index / cols][index % cols] != 'Y';
+    }
+
+    public static boolean isFree(long[] state, int index) {
+        return (state[1 + (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    public static void setFree(long[] state, int index) {
+        state[1 + (index >>> 6)] |= 1L << index;
+    }
+
+    public static void clearFree(long[] state, int index) {
+        state[1 + (index >>> 6)] &= ~(1L << index);
+    }
+}
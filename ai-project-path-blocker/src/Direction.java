@@ -0,0 +1,28 @@
+// The four slide directions. The ordinal doubles as a 2-bit code, which is what the
+// search stores per node instead of a direction string.
+public enum Direction {
+    LEFT(-1, 0), RIGHT(1, 0), UP(0, -1), DOWN(0, 1);
+
+    private static final Direction[] VALUES = values();
+
+    public final int dx;
+    public final int dy;
+
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public static Direction fromCode(int code) {
+        return VALUES[code & 3];
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,424 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+// Breadth-first search that keeps its layers on disk, for boards whose state space does
+// not fit in the heap. Each layer is a file of packed states in sorted order. A layer is
+// expanded by streaming it from disk; the successors collect in a buffer that grows up to
+// the memory cap, which is sorted and written out as a run whenever it fills up. The runs
+// are then merged into the next layer, dropping states that occur in several runs or in
+// any earlier layer (delayed duplicate detection: a sorted merge instead of a hash set).
+//
+// Slides only ever shrink the region, but one state can still be reached at different
+// depths, so a successor has to be checked against every earlier layer and not just the
+// last two. All of them are kept merged into one sorted visited file. The merge that
+// writes a layer reads that file once and writes it again with the new layer added.
+//
+// Only parents are needed to rebuild the path, and they are not stored: the parent of a
+// state in layer d is found by expanding layer d - 1 again until one of its successors is
+// that state, once per layer, after the goal is reached.
+public class ExternalBfsSolver implements Solver {
+    private static final int IO_BUFFER = 1 << 16;
+
+    private final long memoryBytes;
+    private final Path scratchRoot;
+
+    public ExternalBfsSolver(long memoryBytes, Path scratchRoot) {
+        this.memoryBytes = memoryBytes;
+        this.scratchRoot = scratchRoot;
+    }
+
+    // Memory cap from -Dpathblocker.externalMemoryMb (64 by default), layer files under
+    // -Dpathblocker.scratchDir (the system temp directory by default)
+    public static ExternalBfsSolver fromSystemProperties() {
+        return new ExternalBfsSolver(Long.getLong("pathblocker.externalMemoryMb", 64) << 20,
+                Paths.get(System.getProperty("pathblocker.scratchDir", System.getProperty("java.io.tmpdir"))));
+    }
+
+    @Override
+    public String name() {
+        return "external-bfs";
+    }
+
+    @Override
+    public SolverResult solve(Board board, SearchLimits limits) {
+        long startTime = System.nanoTime();
+        Path scratch = null;
+        try {
+            Files.createDirectories(scratchRoot);
+            scratch = Files.createTempDirectory(scratchRoot, "pathblocker-bfs-");
+            return new Search(board, limits, scratch, startTime).run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (scratch != null) {
+                deleteRecursively(scratch);
+            }
+        }
+    }
+
+    // The state of one solve
+    private class Search {
+        private final Board board;
+        private final SearchLimits limits;
+        private final Path scratch;
+        private final long startTime;
+        private final int stride;
+        private final MoveGenerator moves;
+        private final int capacity; // States the buffer may grow to within the memory cap
+        private long[] buffer; // Successors waiting to be sorted into a run
+        private int[] order; // Sort permutation of the buffer
+        private final List<Path> layers = new ArrayList<>();
+        private Path visited; // Every state of the layers so far, sorted
+        private int files;
+        private long expanded;
+        private long generated;
+        private long duplicates;
+        private long peakFrontier = 1;
+        private long peakMemory;
+
+        Search(Board board, SearchLimits limits, Path scratch, long startTime) {
+            this.board = board;
+            this.limits = limits;
+            this.scratch = scratch;
+            this.startTime = startTime;
+            this.stride = board.stride();
+            this.moves = board.newMoveGenerator();
+            long capacity = Math.max(16, memoryBytes / (stride * 8L + 4));
+            this.capacity = (int) Math.min(capacity, (Integer.MAX_VALUE - 8) / stride);
+            // Most levels never come near the cap, so start small and double on demand
+            int initial = Math.min(this.capacity, 1024);
+            this.buffer = new long[initial * stride];
+            this.order = new int[initial];
+        }
+
+        SolverResult run() throws IOException {
+            long[] current = new long[stride];
+            long[] next = new long[stride];
+            board.initialState(current);
+            if (board.isGoal((int) current[0])) {
+                return result(new ArrayList<>());
+            }
+            Path root = newFile();
+            try (StateWriter out = new StateWriter(root)) {
+                out.write(current, 0);
+            }
+            layers.add(root);
+            visited = root;
+
+            while (true) {
+                // Expand the last layer into sorted runs
+                List<Path> runs = new ArrayList<>();
+                int count = 0;
+                try (StateReader in = new StateReader(layers.get(layers.size() - 1))) {
+                    while (in.next()) {
+                        expanded++;
+                        if (limits.shouldStop(expanded)) {
+                            return stats(SolverResult.stopped(name(), limits, expanded, System.nanoTime() - startTime));
+                        }
+                        moves.load(in.state);
+                        for (Direction d : Direction.values()) {
+                            if (!moves.slide(d, next))
+                                continue;
+                            generated++;
+                            System.arraycopy(next, 0, buffer, count * stride, stride);
+                            if (++count == order.length) {
+                                if (order.length < capacity) {
+                                    grow();
+                                } else {
+                                    runs.add(writeRun(count));
+                                    count = 0;
+                                }
+                            }
+                        }
+                    }
+                }
+                if (count > 0) {
+                    runs.add(writeRun(count));
+                }
+                if (runs.isEmpty()) {
+                    return stats(new SolverResult(name(), null, expanded, System.nanoTime() - startTime));
+                }
+
+                Path layer = newFile();
+                long[] goal = merge(runs, layer);
+                for (Path run : runs) {
+                    Files.delete(run);
+                }
+                if (goal != null) {
+                    layers.add(layer);
+                    return result(rebuildPath(goal));
+                }
+                if (Files.size(layer) == 0) {
+                    return stats(new SolverResult(name(), null, expanded, System.nanoTime() - startTime));
+                }
+                peakFrontier = Math.max(peakFrontier, Files.size(layer) / (stride * 8L));
+                layers.add(layer);
+            }
+        }
+
+        // Doubles the buffer, up to the capacity
+        private void grow() {
+            int size = (int) Math.min(capacity, order.length * 2L);
+            buffer = Arrays.copyOf(buffer, size * stride);
+            order = Arrays.copyOf(order, size);
+        }
+
+        // Sorts the first count buffered states and writes each distinct one to a new run
+        private Path writeRun(int count) throws IOException {
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            sort(0, count - 1);
+            Path run = newFile();
+            try (StateWriter out = new StateWriter(run)) {
+                for (int i = 0; i < count; i++) {
+                    if (i > 0 && compare(buffer, order[i - 1] * stride, buffer, order[i] * stride) == 0) {
+                        duplicates++;
+                        continue;
+                    }
+                    out.write(buffer, order[i] * stride);
+                }
+            }
+            return run;
+        }
+
+        // Merges the runs into the layer file, leaving out duplicates and every state of an
+        // earlier layer, and replaces the visited file by one that also holds the new layer.
+        // Returns the first goal state of the new layer, or null.
+        private long[] merge(List<Path> runs, Path layer) throws IOException {
+            List<StateReader> open = new ArrayList<>();
+            PriorityQueue<StateReader> heads = new PriorityQueue<>(
+                    Comparator.comparing((StateReader r) -> r.state, (a, b) -> compare(a, 0, b, 0)));
+            long[] last = new long[stride];
+            boolean first = true;
+            long[] goal = null;
+            Path merged = newFile();
+            try (StateWriter out = new StateWriter(layer); StateWriter all = new StateWriter(merged)) {
+                for (Path run : runs) {
+                    StateReader reader = new StateReader(run);
+                    open.add(reader);
+                    if (reader.next()) {
+                        heads.add(reader);
+                    }
+                }
+                StateReader earlier = new StateReader(visited);
+                open.add(earlier);
+                boolean earlierLeft = earlier.next();
+                peakMemory = Math.max(peakMemory, (long) buffer.length * 8 + order.length * 4L + (open.size() + 2L) * IO_BUFFER);
+
+                while (!heads.isEmpty()) {
+                    StateReader reader = heads.poll();
+                    long[] state = reader.state;
+                    if (!first && compare(last, 0, state, 0) == 0) {
+                        duplicates++;
+                    } else {
+                        System.arraycopy(state, 0, last, 0, stride);
+                        first = false;
+                        // Copy the visited states that sort before this one
+                        int c = -1;
+                        while (earlierLeft && (c = compare(earlier.state, 0, state, 0)) < 0) {
+                            all.write(earlier.state, 0);
+                            earlierLeft = earlier.next();
+                        }
+                        if (earlierLeft && c == 0) {
+                            duplicates++;
+                        } else {
+                            out.write(state, 0);
+                            all.write(state, 0);
+                            if (goal == null && board.isGoal((int) state[0])) {
+                                goal = state.clone();
+                            }
+                        }
+                    }
+                    if (reader.next()) {
+                        heads.add(reader);
+                    }
+                }
+                for (; earlierLeft; earlierLeft = earlier.next()) {
+                    all.write(earlier.state, 0);
+                }
+            } finally {
+                for (StateReader reader : open) {
+                    reader.close();
+                }
+            }
+            // The first layer doubles as the first visited file, and the path needs it later
+            if (!visited.equals(layers.get(0))) {
+                Files.delete(visited);
+            }
+            visited = merged;
+            return goal;
+        }
+
+        // Walks back from the goal in the last layer, finding each parent by expanding
+        // the layer before it again
+        private List<Direction> rebuildPath(long[] goal) throws IOException {
+            Direction[] path = new Direction[layers.size() - 1];
+            long[] target = goal;
+            long[] next = new long[stride];
+            for (int depth = layers.size() - 2; depth >= 0; depth--) {
+                long[] parent = null;
+                try (StateReader in = new StateReader(layers.get(depth))) {
+                    search: while (in.next()) {
+                        moves.load(in.state);
+                        for (Direction d : Direction.values()) {
+                            if (moves.slide(d, next) && Arrays.equals(next, target)) {
+                                parent = in.state.clone();
+                                path[depth] = d;
+                                break search;
+                            }
+                        }
+                    }
+                }
+                if (parent == null) {
+                    throw new IllegalStateException("No parent for a state of layer " + (depth + 1));
+                }
+                target = parent;
+            }
+            return Arrays.asList(path);
+        }
+
+        private SolverResult result(List<Direction> path) {
+            return stats(new SolverResult(name(), path, expanded, System.nanoTime() - startTime));
+        }
+
+        private SolverResult stats(SolverResult result) {
+            return result.withPeakMemoryBytes(peakMemory)
+                    .withStats(new SearchStats(generated, duplicates, peakFrontier, 0, 0));
+        }
+
+        private Path newFile() {
+            return scratch.resolve("states-" + (files++) + ".bin");
+        }
+
+        // Quicksort of order[from..to] by the buffered states they point at
+        private void sort(int from, int to) {
+            while (to - from > 16) {
+                int mid = (from + to) >>> 1;
+                int pivot = order[median(from, mid, to)];
+                int i = from;
+                int j = to;
+                while (i <= j) {
+                    while (compare(buffer, order[i] * stride, buffer, pivot * stride) < 0) {
+                        i++;
+                    }
+                    while (compare(buffer, order[j] * stride, buffer, pivot * stride) > 0) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        int swap = order[i];
+                        order[i++] = order[j];
+                        order[j--] = swap;
+                    }
+                }
+                // Recurse into the smaller half, loop on the larger one
+                if (j - from < to - i) {
+                    sort(from, j);
+                    from = i;
+                } else {
+                    sort(i, to);
+                    to = j;
+                }
+            }
+            for (int i = from + 1; i <= to; i++) {
+                int value = order[i];
+                int j = i - 1;
+                while (j >= from && compare(buffer, order[j] * stride, buffer, value * stride) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = value;
+            }
+        }
+
+        private int median(int a, int b, int c) {
+            if (less(a, b)) {
+                return less(b, c) ? b : less(a, c) ? c : a;
+            }
+            return less(a, c) ? a : less(b, c) ? c : b;
+        }
+
+        private boolean less(int i, int j) {
+            return compare(buffer, order[i] * stride, buffer, order[j] * stride) < 0;
+        }
+
+        private int compare(long[] a, int offsetA, long[] b, int offsetB) {
+            for (int i = 0; i < stride; i++) {
+                if (a[offsetA + i] != b[offsetB + i]) {
+                    return Long.compare(a[offsetA + i], b[offsetB + i]);
+                }
+            }
+            return 0;
+        }
+
+        // Streams the packed states of a file, one at a time into state
+        private class StateReader implements Closeable {
+            final long[] state = new long[stride];
+            private final DataInputStream in;
+            private long remaining;
+
+            StateReader(Path file) throws IOException {
+                this.remaining = Files.size(file) / (stride * 8L);
+                this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), IO_BUFFER));
+            }
+
+            boolean next() throws IOException {
+                if (remaining == 0) {
+                    return false;
+                }
+                remaining--;
+                for (int i = 0; i < stride; i++) {
+                    state[i] = in.readLong();
+                }
+                return true;
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+        }
+
+        private class StateWriter implements Closeable {
+            private final DataOutputStream out;
+
+            StateWriter(Path file) throws IOException {
+                this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), IO_BUFFER));
+            }
+
+            void write(long[] words, int offset) throws IOException {
+                for (int i = 0; i < stride; i++) {
+                    out.writeLong(words[offset + i]);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.close();
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Collections.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not delete " + directory + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+import java.util.Arrays;
+
+// The rules of the game without any Swing: the grid, the player and the moves made so
+// far. A move slides the player until the next cell is a wall, a trail cell or the border,
+// or onto a 'Y', and turns the cells it left behind into walls. Reaching a 'Y' captures it;
+// the level is done when no 'Y' is left.
+//
+// Every move is logged as one int (slide length, captured flag, direction code), which is
+// all undo needs: the start of the slide is length cells back from the player. The count
+// of remaining goals is kept up to date by move and undo, so nothing is ever rescanned.
+public class GameState {
+    private final Bitboard grid;
+    private final int cols;
+    private int x;
+    private int y;
+    private int goalsLeft;
+    private int[] log = new int[64]; // length << 3 | captured << 2 | direction code
+    private int moveCount;
+
+    private GameState(Bitboard grid, int x, int y, int goals) {
+        this.grid = grid;
+        this.cols = grid.cols();
+        this.x = x;
+        this.y = y;
+        this.goalsLeft = goals;
+    }
+
+    // Starts a level from its matrix, at the first 'X'. The matrix is not changed.
+    // Returns null if there is no 'X'.
+    public static GameState fromMatrix(char[][] matrix) {
+        int startX = -1;
+        int startY = -1;
+        int goals = 0;
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = 0; j < matrix[i].length; j++) {
+                if (matrix[i][j] == 'X' && startX < 0) {
+                    startX = j;
+                    startY = i;
+                } else if (matrix[i][j] == 'Y') {
+                    goals++;
+                }
+            }
+        }
+        if (startX < 0) {
+            return null;
+        }
+        return new GameState(Bitboard.fromMatrix(matrix), startX, startY, goals);
+    }
+
+    public int rows() {
+        return grid.rows();
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int playerX() {
+        return x;
+    }
+
+    public int playerY() {
+        return y;
+    }
+
+    public boolean isFree(int x, int y) {
+        return grid.isFree(x, y);
+    }
+
+    public boolean isGoal(int x, int y) {
+        return grid.isGoal(x, y);
+    }
+
+    public int goalsLeft() {
+        return goalsLeft;
+    }
+
+    public boolean isSolved() {
+        return goalsLeft == 0;
+    }
+
+    public int moveCount() {
+        return moveCount;
+    }
+
+    // Direction and slide length of move i, counting from 0
+    public Direction moveDirection(int i) {
+        return Direction.fromCode(log[i]);
+    }
+
+    public int moveLength(int i) {
+        return log[i] >>> 3;
+    }
+
+    // Slides the player in direction d. Returns false, changing nothing, if the player
+    // cannot move that way.
+    public boolean move(Direction d) {
+        int end = grid.slideEnd(x, y, d);
+        int length = Math.abs(end % cols - x) + Math.abs(end / cols - y);
+        if (length == 0) {
+            return false;
+        }
+        grid.markTrail(x, y, end);
+        x = end % cols;
+        y = end / cols;
+        int captured = 0;
+        if (grid.isGoal(x, y)) {
+            grid.clearGoal(x, y);
+            goalsLeft--;
+            captured = 1;
+        }
+        if (moveCount == log.length) {
+            log = Arrays.copyOf(log, moveCount * 2);
+        }
+        log[moveCount++] = length << 3 | captured << 2 | d.code();
+        return true;
+    }
+
+    // Takes back the last move. Returns false if no move was made yet.
+    public boolean undo() {
+        if (moveCount == 0) {
+            return false;
+        }
+        int entry = log[--moveCount];
+        if ((entry & 4) != 0) {
+            grid.setGoal(x, y);
+            goalsLeft++;
+        }
+        Direction d = Direction.fromCode(entry);
+        int length = entry >>> 3;
+        int end = y * cols + x;
+        x -= d.dx * length;
+        y -= d.dy * length;
+        grid.clearTrail(x, y, end);
+        return true;
+    }
+}
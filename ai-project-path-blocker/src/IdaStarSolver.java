@@ -0,0 +1,126 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Iterative deepening A*: repeated depth-first searches bounded by f = g + h, raising the
+// bound to the smallest f that exceeded it. Memory is one packed state per depth and no
+// visited table. Slides always remove free cells, so a path can never revisit a state.
+public class IdaStarSolver implements Solver {
+    private static final int FOUND = -1;
+    private static final int STOPPED = -2;
+
+    private Board board;
+    private MoveGenerator generator;
+    private SearchLimits limits;
+    private long[][] stack; // Packed state per depth
+    private byte[] moves; // Direction code per depth
+    private int foundDepth;
+    private long expanded;
+    private long generated;
+    private int peakDepth;
+
+    @Override
+    public String name() {
+        return "idastar";
+    }
+
+    @Override
+    public synchronized SolverResult solve(Board board, SearchLimits limits) {
+        long startTime = System.nanoTime();
+        this.board = board;
+        this.generator = board.newMoveGenerator();
+        this.limits = limits;
+        this.stack = new long[16][board.stride()];
+        this.moves = new byte[16];
+        this.expanded = 0;
+        this.generated = 0;
+        this.peakDepth = 0;
+
+        board.initialState(stack[0]);
+        int bound = board.goalDistanceBound((int) stack[0][0]);
+        // Every slide removes at least one free cell, which bounds the depth
+        int maxDepth = board.rows() * board.cols();
+        List<Direction> path = null;
+        boolean stopped = false;
+        while (bound <= maxDepth) {
+            int result = search(0, bound);
+            if (result == STOPPED) {
+                stopped = true;
+                break;
+            }
+            if (result == FOUND) {
+                path = new ArrayList<>();
+                for (int i = 0; i < foundDepth; i++) {
+                    path.add(Direction.fromCode(moves[i]));
+                }
+                break;
+            }
+            if (result == Integer.MAX_VALUE) {
+                break; // Nothing exceeded the bound, the search space is exhausted
+            }
+            bound = result;
+        }
+
+        long memoryBytes = (long) stack.length * board.stride() * Long.BYTES + moves.length;
+        this.board = null;
+        this.generator = null;
+        this.stack = null;
+        this.limits = null;
+        long elapsed = System.nanoTime() - startTime;
+        // No visited table: the frontier is the deepest stack reached
+        SearchStats stats = new SearchStats(generated, 0, peakDepth + 1, 0, 0);
+        if (stopped) {
+            return SolverResult.stopped(name(), limits, expanded, elapsed).withPeakMemoryBytes(memoryBytes)
+                    .withStats(stats);
+        }
+        return new SolverResult(name(), path, expanded, elapsed).withPeakMemoryBytes(memoryBytes).withStats(stats);
+    }
+
+    // Returns FOUND, STOPPED, or the smallest f above bound seen below this node
+    private int search(int depth, int bound) {
+        long[] state = stack[depth];
+        int position = (int) state[0];
+        int f = depth + board.goalDistanceBound(position);
+        if (f > bound) {
+            return f;
+        }
+        if (board.isGoal(position)) {
+            foundDepth = depth;
+            return FOUND;
+        }
+        expanded++;
+        if (limits.shouldStop(expanded)) {
+            return STOPPED;
+        }
+
+        if (depth + 1 == stack.length) {
+            grow();
+        }
+        peakDepth = Math.max(peakDepth, depth + 1);
+        int min = Integer.MAX_VALUE;
+        generator.load(state);
+        for (Direction d : Direction.values()) {
+            if (!generator.slide(d, stack[depth + 1]))
+                continue;
+            generated++;
+            moves[depth] = d.code();
+            int result = search(depth + 1, bound);
+            if (result == FOUND || result == STOPPED) {
+                return result;
+            }
+            min = Math.min(min, result);
+            generator.load(state); // The recursion loaded deeper states
+        }
+        return min;
+    }
+
+    private void grow() {
+        int length = stack.length * 2;
+        long[][] bigger = Arrays.copyOf(stack, length);
+        for (int i = stack.length; i < length; i++) {
+            bigger[i] = new long[board.stride()];
+        }
+        stack = bigger;
+        moves = Arrays.copyOf(moves, length);
+    }
+}
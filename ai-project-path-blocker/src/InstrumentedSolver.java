@@ -0,0 +1,77 @@
+// Wraps a solver to publish every solve as a SolveEvent and in the SolverStats MBean, and
+// adds the bytes the solving thread allocated to the result's stats. The winner of a
+// portfolio race is counted here too, so solvers themselves never touch JMX. Solvers.byName hands
+// out wrapped solvers unless -Dpathblocker.telemetry=off.
+//
+// Solvers with threads of their own (parallel-bfs, portfolio) report the allocation of
+// all their threads themselves, which is kept as it is.
+public class InstrumentedSolver implements Solver {
+    private final Solver solver;
+
+    public InstrumentedSolver(Solver solver) {
+        this.solver = solver;
+    }
+
+    public static boolean enabled() {
+        return !"off".equalsIgnoreCase(System.getProperty("pathblocker.telemetry", "on"));
+    }
+
+    @Override
+    public String name() {
+        return solver.name();
+    }
+
+    @Override
+    public int version() {
+        return solver.version();
+    }
+
+    @Override
+    public double optimalityBound() {
+        return solver.optimalityBound();
+    }
+
+    @Override
+    public boolean solvesOnCallingThread() {
+        return solver.solvesOnCallingThread();
+    }
+
+    @Override
+    public SolverResult solve(Board board, SearchLimits limits) {
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long allocatedBefore = AllocationTally.currentThreadBytes();
+        SolverResult result = solver.solve(board, limits);
+        long allocatedAfter = AllocationTally.currentThreadBytes();
+        event.end();
+        if (solver.solvesOnCallingThread() && allocatedBefore >= 0 && allocatedAfter >= 0) {
+            result = result.withStats(result.stats().withAllocatedBytes(allocatedAfter - allocatedBefore));
+        }
+
+        if (event.shouldCommit()) {
+            SearchStats stats = result.stats();
+            event.solver = result.solverName();
+            event.winner = result.winner();
+            event.status = result.status().toString();
+            event.rows = board.rows();
+            event.cols = board.cols();
+            event.moves = result.isSolved() ? result.path().size() : -1;
+            event.nodesExpanded = result.nodesExpanded();
+            event.nodesGenerated = stats.nodesGenerated();
+            event.duplicates = stats.duplicates();
+            event.peakFrontier = stats.peakFrontier();
+            event.tableSize = stats.tableSize();
+            event.loadFactor = stats.loadFactor();
+            event.nanosPerExpansion = SolverStats.nanosPerExpansion(result);
+            event.allocatedBytes = stats.allocatedBytes();
+            event.peakMemoryBytes = result.peakMemoryBytes();
+            event.commit();
+        }
+        SolverStats solverStats = SolverStats.get();
+        solverStats.record(result);
+        if (result.winner() != null) {
+            solverStats.recordPortfolioWin(result.winner());
+        }
+        return result;
+    }
+}
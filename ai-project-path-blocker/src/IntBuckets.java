@@ -0,0 +1,57 @@
+import java.util.Arrays;
+
+// Bucket queue of state indices keyed by a small integer cost (f for A*, g for the
+// macro search). Within one key the most recently pushed state is taken first, which
+// favours deeper states and reaches the goal sooner.
+class IntBuckets {
+    private int[][] buckets = new int[8][];
+    private int[] sizes = new int[8];
+    private int min = Integer.MAX_VALUE;
+    private int count;
+
+    void push(int key, int value) {
+        if (key >= buckets.length) {
+            int length = Math.max(key + 1, buckets.length * 2);
+            buckets = Arrays.copyOf(buckets, length);
+            sizes = Arrays.copyOf(sizes, length);
+        }
+        int[] bucket = buckets[key];
+        if (bucket == null) {
+            bucket = buckets[key] = new int[64];
+        } else if (sizes[key] == bucket.length) {
+            bucket = buckets[key] = Arrays.copyOf(bucket, bucket.length * 2);
+        }
+        bucket[sizes[key]++] = value;
+        min = Math.min(min, key);
+        count++;
+    }
+
+    long memoryBytes() {
+        long bytes = sizes.length * 4L;
+        for (int[] bucket : buckets) {
+            bytes += bucket != null ? bucket.length * 4L : 0;
+        }
+        return bytes;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int minKey() {
+        while (sizes[min] == 0) {
+            min++;
+        }
+        return min;
+    }
+
+    int pop() {
+        int key = minKey();
+        count--;
+        return buckets[key][--sizes[key]];
+    }
+}
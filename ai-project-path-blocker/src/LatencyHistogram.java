@@ -0,0 +1,81 @@
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free latency histogram for many recording threads. Buckets grow by powers of two
+// from 1 microsecond, each split into SUB_BUCKETS linear steps, so any percentile is
+// reported within about 12% of the true value with a few kilobytes of counters.
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 8;
+    private static final int POWERS = 40; // Up to 2^40 us, about 12 days
+
+    private final AtomicLongArray counts = new AtomicLongArray(POWERS * SUB_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        counts.incrementAndGet(bucket(micros));
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double meanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / 1e6 / n;
+    }
+
+    public double maxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    // Upper edge of the bucket holding the given percentile (0 to 100), in milliseconds
+    public double percentileMillis(double percentile) {
+        long n = 0;
+        long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(n * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperMicros(i) / 1e3, maxMillis());
+            }
+        }
+        return maxMillis();
+    }
+
+    // e.g. "n=1200 mean=3.10ms p50=2.88ms p95=6.50ms p99=9.00ms max=14.20ms"
+    public String summary() {
+        return String.format(Locale.ROOT, "n=%d mean=%.2fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms", count(),
+                meanMillis(), percentileMillis(50), percentileMillis(95), percentileMillis(99), maxMillis());
+    }
+
+    private static int bucket(long micros) {
+        int power = 63 - Long.numberOfLeadingZeros(micros); // micros in [2^power, 2^(power + 1))
+        if (power >= POWERS) {
+            return POWERS * SUB_BUCKETS - 1;
+        }
+        int step = (int) ((micros - (1L << power)) * SUB_BUCKETS >>> power);
+        return power * SUB_BUCKETS + step;
+    }
+
+    private static long upperMicros(int bucket) {
+        int power = bucket / SUB_BUCKETS;
+        int step = bucket % SUB_BUCKETS;
+        return (1L << power) + (((step + 1L) << power) / SUB_BUCKETS);
+    }
+}
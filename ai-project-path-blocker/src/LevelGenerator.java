@@ -0,0 +1,282 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+// Generates random levels that are known to be solvable, for scaling and stress tests.
+// Walls are scattered at the requested density, then a random sequence of slides is
+// planted from the start: the cells of every slide are cleared and the cell after its
+// end becomes a wall unless it is already part of the trail. Each planted slide stops
+// exactly where it was planned, so the walk is a solution whichever of its cells gets the
+// 'Y' (a slide ends early on a 'Y'). Every level is then solved with a real solver under
+// a budget and only kept if the solver finds a path.
+//
+// Usage: java LevelGenerator --out <directory> [--size 32 | --size 24x40 | --sizes 16,32,64,128]
+//            [--count 10] [--density 0.25] [--goal end|far|random] [--moves 8] [--seed 1]
+//            [--solver bfs] [--time-budget ms] [--node-budget nodes] [--pack levels.pbl]
+//
+// Levels are written in the usual whitespace separated format as level-RxC-NNN.txt, so
+// BatchSolver can run the pack, together with a pack.csv of what the check measured.
+// --pack also collects them, in the same order, into one binary LevelPack.
+public class LevelGenerator {
+    public static final int MAX_SIZE = 128;
+    private static final int MAX_ATTEMPTS = 100;
+
+    // Which cell of the planted walk becomes the goal
+    public enum GoalPlacement {
+        END, FAR, RANDOM
+    }
+
+    private static final byte OPEN = 0; // Not yet used by the walk
+    private static final byte TRAIL = 1; // Cleared for a planted slide
+    private static final byte STOP = 2; // Wall that ends a planted slide
+
+    private final int rows;
+    private final int cols;
+    private final double wallDensity;
+    private final GoalPlacement goal;
+    private final int moves;
+
+    public LevelGenerator(int rows, int cols, double wallDensity, GoalPlacement goal, int moves) {
+        if (rows < 3 || cols < 3 || rows > MAX_SIZE || cols > MAX_SIZE) {
+            throw new IllegalArgumentException("Level size must be between 3 and " + MAX_SIZE + ", got " + rows + "x" + cols);
+        }
+        if (wallDensity < 0 || wallDensity >= 1) {
+            throw new IllegalArgumentException("Wall density must be in [0, 1), got " + wallDensity);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.wallDensity = wallDensity;
+        this.goal = goal;
+        this.moves = Math.max(1, moves);
+    }
+
+    // One level with a planted walk of up to moves slides, or null if the walk got stuck
+    // before its first slide
+    public char[][] generate(Random random) {
+        char[][] matrix = new char[rows][cols];
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                boolean border = x == 0 || y == 0 || x == cols - 1 || y == rows - 1;
+                matrix[y][x] = border || random.nextDouble() < wallDensity ? '1' : '0';
+            }
+        }
+
+        byte[] used = new byte[rows * cols];
+        List<Integer> walk = new ArrayList<>();
+        int x = 1 + random.nextInt(cols - 2);
+        int y = 1 + random.nextInt(rows - 2);
+        used[y * cols + x] = TRAIL;
+        matrix[y][x] = '0';
+        walk.add(y * cols + x);
+        Direction[] directions = Direction.values();
+        for (int move = 0; move < moves; move++) {
+            // Try the directions in a random order, each with a random length
+            int first = random.nextInt(4);
+            int length = 0;
+            Direction d = null;
+            for (int i = 0; i < 4 && length == 0; i++) {
+                d = directions[(first + i) & 3];
+                length = plantLength(used, x, y, d, random);
+            }
+            if (length == 0) {
+                break;
+            }
+            for (int step = 0; step < length; step++) {
+                x += d.dx;
+                y += d.dy;
+                used[y * cols + x] = TRAIL;
+                matrix[y][x] = '0';
+                walk.add(y * cols + x);
+            }
+            int stopX = x + d.dx;
+            int stopY = y + d.dy;
+            if (used[stopY * cols + stopX] == OPEN) {
+                used[stopY * cols + stopX] = STOP;
+                matrix[stopY][stopX] = '1';
+            }
+        }
+        if (walk.size() < 2) {
+            return null;
+        }
+
+        int start = walk.get(0);
+        int target = pickGoal(walk, random);
+        matrix[start / cols][start % cols] = 'X';
+        matrix[target / cols][target % cols] = 'Y';
+        return matrix;
+    }
+
+    // A random number of cells the walk can slide from (x, y) in direction d, or 0 if it
+    // cannot move that way. Every cell on the way must be unused and inside the border.
+    // The cell after the end is then either unused, and becomes a wall, or the border, the
+    // trail or a wall already, so the slide always stops there.
+    private int plantLength(byte[] used, int x, int y, Direction d, Random random) {
+        int max = 0;
+        int cx = x + d.dx;
+        int cy = y + d.dy;
+        while (cx > 0 && cy > 0 && cx < cols - 1 && cy < rows - 1 && used[cy * cols + cx] == OPEN) {
+            max++;
+            cx += d.dx;
+            cy += d.dy;
+        }
+        return max == 0 ? 0 : 1 + random.nextInt(max);
+    }
+
+    private int pickGoal(List<Integer> walk, Random random) {
+        switch (goal) {
+            case FAR: {
+                int start = walk.get(0);
+                int best = walk.get(walk.size() - 1);
+                int bestDistance = -1;
+                for (int i = 1; i < walk.size(); i++) {
+                    int cell = walk.get(i);
+                    int distance = Math.abs(cell % cols - start % cols) + Math.abs(cell / cols - start / cols);
+                    if (distance > bestDistance) {
+                        best = cell;
+                        bestDistance = distance;
+                    }
+                }
+                return best;
+            }
+            case RANDOM:
+                return walk.get(1 + random.nextInt(walk.size() - 1));
+            default:
+                return walk.get(walk.size() - 1);
+        }
+    }
+
+    // Writes the matrix in the format readMatrixFromFile expects
+    public static void write(char[][] matrix, Path file) throws IOException {
+        Files.writeString(file, LevelLoader.toText(matrix), StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path out = null;
+        List<int[]> sizes = new ArrayList<>();
+        int count = 10;
+        double density = 0.25;
+        GoalPlacement goal = GoalPlacement.END;
+        int moves = 8;
+        long seed = 1;
+        String solverName = Solvers.DEFAULT;
+        long timeBudgetMillis = 10_000;
+        long nodeBudget = 0;
+        Path packFile = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i++]) {
+                    case "--out" -> out = Paths.get(value);
+                    case "--size" -> sizes.add(parseSize(value));
+                    case "--sizes" -> {
+                        for (String size : value.split(",")) {
+                            sizes.add(parseSize(size.trim()));
+                        }
+                    }
+                    case "--count" -> count = Integer.parseInt(value);
+                    case "--density" -> density = Double.parseDouble(value);
+                    case "--goal" -> goal = GoalPlacement.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "--moves" -> moves = Integer.parseInt(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--solver" -> {
+                        Solvers.byName(value); // Fails early on unknown names
+                        solverName = value;
+                    }
+                    case "--time-budget" -> timeBudgetMillis = Long.parseLong(value);
+                    case "--node-budget" -> nodeBudget = Long.parseLong(value);
+                    case "--pack" -> packFile = Paths.get(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+                }
+            }
+            if (out == null) {
+                throw new IllegalArgumentException("No output directory given");
+            }
+            if (sizes.isEmpty()) {
+                sizes.add(new int[] { 16, 16 });
+            }
+            for (int[] size : sizes) {
+                new LevelGenerator(size[0], size[1], density, goal, moves); // Validates the options
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java LevelGenerator --out <directory> [--size N|RxC] [--sizes N,N,...] [--count N]"
+                    + " [--density 0.25] [--goal end|far|random] [--moves N] [--seed N] [--solver " + String.join("|", Solvers.names())
+                    + "] [--time-budget ms] [--node-budget nodes] [--pack file.pbl]");
+            System.exit(2);
+            return;
+        }
+
+        Files.createDirectories(out);
+        Solver solver = Solvers.byName(solverName);
+        List<char[][]> packed = new ArrayList<>();
+        int failed = 0;
+        try (PrintStream manifest = new PrintStream(Files.newOutputStream(out.resolve("pack.csv")), false, "UTF-8")) {
+            manifest.println("file,rows,cols,density,goal,seed,attempts,moves,nodes_expanded,time_ms,peak_memory_bytes");
+            for (int[] size : sizes) {
+                LevelGenerator generator = new LevelGenerator(size[0], size[1], density, goal, moves);
+                for (int n = 1; n <= count; n++) {
+                    String name = String.format(Locale.ROOT, "level-%dx%d-%03d.txt", size[0], size[1], n);
+                    // A seed per level, so any single level can be regenerated on its own
+                    long levelSeed = seed * 1_000_003L + size[0] * 131L + size[1] * 31L + n;
+                    Random random = new Random(levelSeed);
+                    char[][] matrix = null;
+                    SolverResult result = null;
+                    int attempts = 0;
+                    while (attempts < MAX_ATTEMPTS) {
+                        attempts++;
+                        matrix = generator.generate(random);
+                        if (matrix == null) {
+                            continue;
+                        }
+                        result = solver.solve(Board.fromMatrix(matrix), new SearchLimits(timeBudgetMillis, nodeBudget));
+                        if (result.isSolved()) {
+                            break;
+                        }
+                    }
+                    if (result == null || !result.isSolved()) {
+                        System.err.println(name + ": no verified level after " + attempts + " attempts"
+                                + (result != null ? " (" + result.describe() + ")" : ""));
+                        failed++;
+                        continue;
+                    }
+                    write(matrix, out.resolve(name));
+                    if (packFile != null) {
+                        packed.add(matrix);
+                    }
+                    manifest.println(name + "," + size[0] + "," + size[1] + "," + density + "," + goal.name().toLowerCase()
+                            + "," + levelSeed + "," + attempts + "," + result.path().size() + "," + result.nodesExpanded()
+                            + "," + String.format(Locale.ROOT, "%.3f", result.elapsedNanos() / 1e6) + ","
+                            + result.peakMemoryBytes());
+                    System.out.println(name + ": " + result.describe());
+                }
+            }
+        }
+        if (packFile != null) {
+            LevelPack.write(packed, packFile);
+            System.out.println("Packed " + packed.size() + " level(s) into " + packFile);
+        }
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    // "32" for a square level or "24x40" for rows x columns
+    private static int[] parseSize(String value) {
+        int split = value.toLowerCase(Locale.ROOT).indexOf('x');
+        if (split < 0) {
+            int size = Integer.parseInt(value);
+            return new int[] { size, size };
+        }
+        return new int[] { Integer.parseInt(value.substring(0, split)), Integer.parseInt(value.substring(split + 1)) };
+    }
+}
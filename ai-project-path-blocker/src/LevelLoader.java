@@ -0,0 +1,125 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reads level files. Kept apart from Main so headless tools can load levels without
+// pulling in AWT or Swing.
+//
+// A level is either a text file, one row per line with whitespace separated cells, or
+// an entry of a binary level pack written as "<pack>.pbl#<n>" (n counts from 1). Packs
+// are mapped once and then shared by every caller.
+public final class LevelLoader {
+    private static final Map<Path, LevelPack> PACKS = new HashMap<>();
+
+    private LevelLoader() {
+    }
+
+    public static char[][] readMatrixFromFile(String filePath) throws IOException {
+        return parse(Files.readAllBytes(Paths.get(filePath)));
+    }
+
+    // Parses a text level straight from its bytes: the first character of every token is
+    // a cell and every non-empty line is a row. Blank lines are skipped.
+    public static char[][] parse(byte[] bytes) {
+        List<char[]> rows = new ArrayList<>();
+        char[] row = new char[16];
+        int cells = 0;
+        boolean inToken = false;
+        for (byte b : bytes) {
+            if (b == '\n') {
+                if (cells > 0) {
+                    rows.add(Arrays.copyOf(row, cells));
+                }
+                cells = 0;
+                inToken = false;
+            } else if (b == ' ' || b == '\t' || b == '\r' || b == '\f') {
+                inToken = false;
+            } else if (!inToken) {
+                if (cells == row.length) {
+                    row = Arrays.copyOf(row, cells * 2);
+                }
+                row[cells++] = (char) (b & 0xff);
+                inToken = true;
+            }
+        }
+        if (cells > 0) {
+            rows.add(Arrays.copyOf(row, cells));
+        }
+        return rows.toArray(new char[0][]);
+    }
+
+    // The matrix in the text format parse reads, one line per row
+    public static String toText(char[][] matrix) {
+        StringBuilder text = new StringBuilder();
+        for (char[] row : matrix) {
+            for (int x = 0; x < row.length; x++) {
+                if (x > 0) {
+                    text.append(' ');
+                }
+                text.append(row[x]);
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    // Reads a text level file or a pack entry such as "packs/big.pbl#12"
+    public static char[][] read(String level) throws IOException {
+        int split = packSplit(level);
+        if (split < 0) {
+            return readMatrixFromFile(level);
+        }
+        int number = entryNumber(level, split);
+        LevelPack pack = pack(Paths.get(level.substring(0, split)));
+        if (number < 1 || number > pack.size()) {
+            throw new IOException("No level " + number + " in " + level.substring(0, split) + ", it has " + pack.size());
+        }
+        return pack.matrix(number - 1);
+    }
+
+    public static boolean exists(String level) throws IOException {
+        int split = packSplit(level);
+        if (split < 0) {
+            return Files.isRegularFile(Paths.get(level));
+        }
+        Path file = Paths.get(level.substring(0, split));
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        int number = entryNumber(level, split);
+        return number >= 1 && number <= pack(file).size();
+    }
+
+    // The pack at file, mapped on first use
+    public static LevelPack pack(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        synchronized (PACKS) {
+            LevelPack pack = PACKS.get(key);
+            if (pack == null) {
+                pack = LevelPack.open(key);
+                PACKS.put(key, pack);
+            }
+            return pack;
+        }
+    }
+
+    private static int packSplit(String level) {
+        int split = level.lastIndexOf('#');
+        return split > 0 && level.regionMatches(true, split - LevelPack.EXTENSION.length(), LevelPack.EXTENSION, 0,
+                LevelPack.EXTENSION.length()) ? split : -1;
+    }
+
+    private static int entryNumber(String level, int split) throws IOException {
+        try {
+            return Integer.parseInt(level.substring(split + 1));
+        } catch (NumberFormatException e) {
+            throw new IOException("Bad level number in " + level);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Many levels in one memory-mapped file, with random access to any of them and no text
+// to parse. Every cell is a 2-bit code (0 free, 1 wall, 2 'X', 3 'Y') packed four to a
+// byte, row by row, and every level takes the same number of bytes, so level i is found
+// by arithmetic alone.
+//
+// Layout (big endian): magic "PBLP", format version (short), count (int), largest rows
+// and columns (short each), record size in bytes (int); then an index of rows and
+// columns (short each) per level; then the fixed width records.
+//
+// Usage: java LevelPack <output.pbl> <directory|glob>   packs text levels, in name order
+public class LevelPack {
+    public static final String EXTENSION = ".pbl";
+
+    private static final int MAGIC = 0x50424c50; // "PBLP"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 18;
+    private static final int INDEX_ENTRY_BYTES = 4;
+    private static final char[] CELLS = { '0', '1', 'X', 'Y' };
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int recordBytes;
+    private final int recordsStart;
+
+    private LevelPack(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a level pack");
+        }
+        if (buffer.getShort(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported level pack version " + buffer.getShort(4));
+        }
+        this.count = buffer.getInt(6);
+        this.recordBytes = buffer.getInt(14);
+        this.recordsStart = HEADER_BYTES + count * INDEX_ENTRY_BYTES;
+        if (count < 0 || recordBytes < 0 || (long) recordsStart + (long) count * recordBytes > buffer.limit()) {
+            throw new IOException("Truncated level pack");
+        }
+    }
+
+    // Maps the pack read-only. The mapping stays valid after the channel is closed.
+    public static LevelPack open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Level pack " + file + " is larger than 2 GB");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new LevelPack(buffer);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int rows(int index) {
+        return buffer.getShort(indexEntry(index)) & 0xffff;
+    }
+
+    public int cols(int index) {
+        return buffer.getShort(indexEntry(index) + 2) & 0xffff;
+    }
+
+    // Unpacks level index (from 0) into a new matrix, as readMatrixFromFile returns it
+    public char[][] matrix(int index) {
+        int rows = rows(index);
+        int cols = cols(index);
+        int offset = recordsStart + index * recordBytes;
+        char[][] matrix = new char[rows][cols];
+        int cell = 0;
+        int packed = 0;
+        for (int y = 0; y < rows; y++) {
+            char[] row = matrix[y];
+            for (int x = 0; x < cols; x++, cell++) {
+                if ((cell & 3) == 0) {
+                    packed = buffer.get(offset + (cell >>> 2));
+                }
+                row[x] = CELLS[(packed >>> ((cell & 3) * 2)) & 3];
+            }
+        }
+        return matrix;
+    }
+
+    private int indexEntry(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Level " + index + " of a pack with " + count);
+        }
+        return HEADER_BYTES + index * INDEX_ENTRY_BYTES;
+    }
+
+    // Writes the levels as a pack, through a temporary file so readers never map a half
+    // written one
+    public static void write(List<char[][]> levels, Path file) throws IOException {
+        int maxRows = 0;
+        int maxCols = 0;
+        for (char[][] level : levels) {
+            maxRows = Math.max(maxRows, level.length);
+            for (char[] row : level) {
+                maxCols = Math.max(maxCols, row.length);
+            }
+        }
+        if (maxRows > 0xffff || maxCols > 0xffff) {
+            throw new IllegalArgumentException("Levels are too large for a pack: " + maxRows + "x" + maxCols);
+        }
+        int recordBytes = (maxRows * maxCols + 3) / 4;
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(temp);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeInt(levels.size());
+                out.writeShort(maxRows);
+                out.writeShort(maxCols);
+                out.writeInt(recordBytes);
+                for (char[][] level : levels) {
+                    out.writeShort(level.length);
+                    out.writeShort(level.length > 0 ? level[0].length : 0);
+                }
+                byte[] record = new byte[recordBytes];
+                for (char[][] level : levels) {
+                    Arrays.fill(record, (byte) 0);
+                    int cell = 0;
+                    for (char[] row : level) {
+                        if (row.length != level[0].length) {
+                            throw new IllegalArgumentException("Rows of a packed level must have the same length");
+                        }
+                        for (char c : row) {
+                            record[cell >>> 2] |= code(c) << ((cell & 3) * 2);
+                            cell++;
+                        }
+                    }
+                    out.write(record);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static int code(char cell) {
+        switch (cell) {
+            case '0':
+                return 0;
+            case '1':
+                return 1;
+            case 'X':
+                return 2;
+            case 'Y':
+                return 3;
+            default:
+                throw new IllegalArgumentException("Cell '" + cell + "' cannot be packed");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java LevelPack <output" + EXTENSION + "> <directory|glob>");
+            System.exit(2);
+        }
+        List<char[][]> levels = new ArrayList<>();
+        for (String level : BatchSolver.findLevels(args[1])) {
+            levels.add(LevelLoader.read(level));
+        }
+        Path output = Paths.get(args[0]);
+        write(levels, output);
+        System.out.println("Packed " + levels.size() + " level(s) into " + output + " (" + Files.size(output) + " bytes)");
+    }
+}
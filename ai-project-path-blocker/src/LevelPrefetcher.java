@@ -0,0 +1,173 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
+
+// Reads, and for the AI also solves, the next few levels on a background thread while the
+// current one is played, so that a level transition finds the board already loaded and
+// its path already found. Kept apart from Main like LevelLoader, so it needs no Swing.
+//
+// Memory stays bounded: only the current level and up to depth levels after it are kept,
+// entries the game has moved past are dropped and their solves cancelled, and levels are
+// solved one at a time under a node budget. A level too large for the budget is simply
+// left to the normal solve when it is reached.
+public class LevelPrefetcher {
+    // A level read ahead. matrix is null if there is no such level; result is the path
+    // found ahead, or null if the level was only read or did not fit the budget.
+    public static final class Level {
+        private final char[][] matrix;
+        private final String solverName;
+        private final SolverResult result;
+
+        Level(char[][] matrix, String solverName, SolverResult result) {
+            this.matrix = matrix;
+            this.solverName = solverName;
+            this.result = result;
+        }
+
+        public boolean exists() {
+            return matrix != null;
+        }
+
+        // A copy, so the caller may change it
+        public char[][] matrix() {
+            char[][] copy = new char[matrix.length][];
+            for (int i = 0; i < matrix.length; i++) {
+                copy[i] = matrix[i].clone();
+            }
+            return copy;
+        }
+
+        // The result solved ahead with the named solver, or null
+        public SolverResult result(String solver) {
+            return solver.equals(solverName) ? result : null;
+        }
+    }
+
+    private static class Entry {
+        final String solverName; // null if the level is only read
+        final SearchLimits limits;
+        final CompletableFuture<Level> future;
+
+        Entry(String solverName, SearchLimits limits, CompletableFuture<Level> future) {
+            this.solverName = solverName;
+            this.limits = limits;
+            this.future = future;
+        }
+    }
+
+    private final IntFunction<String> sources;
+    private final int depth;
+    private final long nodeBudget;
+    private final SolutionCache cache;
+    private final ExecutorService worker;
+    private final Map<Integer, Entry> entries = new TreeMap<>(); // Guarded by this
+
+    // sources maps a level number to what LevelLoader.read takes
+    public LevelPrefetcher(IntFunction<String> sources, int depth, long nodeBudget, SolutionCache cache) {
+        this.sources = sources;
+        this.depth = Math.max(0, depth);
+        this.nodeBudget = nodeBudget;
+        this.cache = cache;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "level-prefetch");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    // Depth from -Dpathblocker.prefetchDepth (2 by default, 0 turns prefetching off) and the
+    // budget of every solve ahead from -Dpathblocker.prefetchNodeBudget (5 million nodes)
+    public static LevelPrefetcher fromSystemProperties(IntFunction<String> sources, SolutionCache cache) {
+        return new LevelPrefetcher(sources, Integer.getInteger("pathblocker.prefetchDepth", 2),
+                Long.getLong("pathblocker.prefetchNodeBudget", 5_000_000), cache);
+    }
+
+    // Called when level current starts. Keeps that level and the depth levels after it,
+    // queueing the ones not prefetched yet, nearest first. With a solver name they are
+    // solved as well; without one they are only read.
+    public synchronized void advanceTo(int current, String solverName) {
+        for (Iterator<Map.Entry<Integer, Entry>> it = entries.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Integer, Entry> entry = it.next();
+            int level = entry.getKey();
+            String solvedWith = entry.getValue().solverName;
+            if (level < current || level > current + depth || solverName != null && !solverName.equals(solvedWith)) {
+                entry.getValue().limits.cancel();
+                it.remove();
+            }
+        }
+        for (int level = current + 1; level <= current + depth; level++) {
+            if (!entries.containsKey(level)) {
+                SearchLimits limits = new SearchLimits(0, nodeBudget);
+                int number = level;
+                entries.put(level, new Entry(solverName, limits,
+                        CompletableFuture.supplyAsync(() -> prefetch(number, solverName, limits), worker)));
+            }
+        }
+    }
+
+    // The level if it has been prefetched completely, otherwise null. Never blocks.
+    public synchronized Level ready(int level) {
+        Entry entry = entries.get(level);
+        if (entry == null || !entry.future.isDone() || entry.future.isCompletedExceptionally()) {
+            return null;
+        }
+        return entry.future.join();
+    }
+
+    // Waits for a prefetch of the level with the named solver that is still running, so it
+    // is not solved twice. Returns null if there is none, it failed, or waiting gets
+    // cancelled through limits.
+    public Level await(int level, String solverName, SearchLimits limits) {
+        CompletableFuture<Level> future;
+        synchronized (this) {
+            Entry entry = entries.get(level);
+            if (entry == null || !solverName.equals(entry.solverName)) {
+                return null;
+            }
+            future = entry.future;
+        }
+        while (!limits.isCancelled()) {
+            try {
+                return future.get(100, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Check for cancellation again
+            } catch (ExecutionException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private Level prefetch(int level, String solverName, SearchLimits limits) {
+        try {
+            String source = sources.apply(level);
+            if (!LevelLoader.exists(source)) {
+                return new Level(null, solverName, null);
+            }
+            char[][] matrix = LevelLoader.read(source);
+            SolverResult result = null;
+            if (solverName != null && !limits.isCancelled()) {
+                result = cache.solve(matrix, Solvers.byName(solverName), limits);
+                if (result.status() != SolverResult.Status.SOLVED && result.status() != SolverResult.Status.NO_SOLUTION) {
+                    result = null; // Out of budget or cancelled, the game solves it when it gets there
+                }
+            }
+            return new Level(matrix, solverName, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Breadth-first search that skips over forced moves. Once the trail has walled off a
+// corridor the player often has a single legal slide, and plain BFS queues every state
+// of such a chain. Here a successor is followed as long as it has exactly one successor
+// of its own, and only the state where the chain ends is stored: a branching point or a
+// 'Y'. Chains that run into a state without any successor are dropped entirely.
+//
+// A stored edge then costs as many moves as its chain, so states are taken off a bucket
+// queue in order of moves made, and reopened when a shorter route to them turns up; the
+// first 'Y' taken off is still reached with the fewest moves. The table only records the
+// first slide of every chain. The rest is forced, so the full path is rebuilt by playing
+// the chains again from the stored states.
+public class MacroBfsSolver implements Solver {
+    @Override
+    public String name() {
+        return "macro-bfs";
+    }
+
+    @Override
+    public SolverResult solve(Board board, SearchLimits limits) {
+        long startTime = System.nanoTime();
+
+        int stride = board.stride();
+        StateTable table = new StateTable(stride, 1 << 10);
+        int[] costs = new int[1 << 10]; // Fewest moves known per state index
+        IntBuckets open = new IntBuckets();
+
+        MoveGenerator moves = board.newMoveGenerator();
+        long[] current = new long[stride];
+        long[] next = new long[stride];
+
+        board.initialState(current);
+        int root = table.addRoot(current, board.hash(current));
+        costs[root] = 0;
+        open.push(0, root);
+
+        long expanded = 0;
+        long generated = 0;
+        long duplicates = 0;
+        int peakFrontier = 1;
+        while (!open.isEmpty()) {
+            peakFrontier = Math.max(peakFrontier, open.size());
+            int g = open.minKey();
+            int index = open.pop();
+            if (costs[index] != g) {
+                continue; // Stale entry, the state was reopened with fewer moves
+            }
+            table.get(index, current);
+            expanded++;
+
+            if (board.isGoal((int) current[0])) {
+                return new SolverResult(name(), expandPath(board, table, index), expanded, System.nanoTime() - startTime)
+                        .withPeakMemoryBytes(table.memoryBytes() + costs.length * 4L + open.memoryBytes())
+                        .withStats(SearchStats.of(generated, duplicates, peakFrontier, table));
+            }
+            if (limits.shouldStop(expanded)) {
+                return SolverResult.stopped(name(), limits, expanded, System.nanoTime() - startTime)
+                        .withPeakMemoryBytes(table.memoryBytes() + costs.length * 4L + open.memoryBytes())
+                        .withStats(SearchStats.of(generated, duplicates, peakFrontier, table));
+            }
+
+            boolean loaded = false;
+            for (Direction d : Direction.values()) {
+                if (!loaded) {
+                    moves.load(current, table.hash(index));
+                    loaded = true;
+                }
+                if (!moves.slide(d, next))
+                    continue;
+                generated++;
+                int forced = followForced(board, moves, next, null);
+                loaded = false; // Following the chain loaded other states
+                if (forced < 0) {
+                    continue;
+                }
+                generated += forced;
+                int cost = g + 1 + forced;
+                long hash = moves.successorHash(); // Of the end of the chain
+                int child = table.indexOf(next, hash);
+                if (child < 0) {
+                    child = table.add(next, hash, index, d.code());
+                    if (child == costs.length) {
+                        costs = Arrays.copyOf(costs, costs.length * 2);
+                    }
+                } else if (costs[child] <= cost) {
+                    duplicates++;
+                    continue;
+                } else {
+                    duplicates++; // Reopened with fewer moves
+                    table.relink(child, index, d.code());
+                }
+                costs[child] = cost;
+                open.push(cost, child);
+            }
+        }
+
+        return new SolverResult(name(), null, expanded, System.nanoTime() - startTime)
+                .withPeakMemoryBytes(table.memoryBytes() + costs.length * 4L + open.memoryBytes())
+                .withStats(SearchStats.of(generated, duplicates, peakFrontier, table));
+    }
+
+    // Moves state along its chain of forced slides until it reaches a 'Y' or a state with
+    // more than one possible slide, adding the slides to path if one is given. Returns the
+    // number of slides made, or -1 if the chain ends in a state with no successor at all.
+    // Only the forced slide itself pays for a flood fill; a state that merely looks like
+    // a branching point is stored, which costs some memory but never a shorter path.
+    // state must be the last successor moves wrote, and stays so, keeping its hash in
+    // moves.successorHash().
+    private static int followForced(Board board, MoveGenerator moves, long[] state, List<Direction> path) {
+        int forced = 0;
+        while (!board.isGoal((int) state[0])) {
+            moves.load(state, moves.successorHash());
+            Direction only = null;
+            for (Direction d : Direction.values()) {
+                if (!moves.canSlide(d))
+                    continue;
+                if (only != null) {
+                    return forced; // A branching point
+                }
+                only = d;
+            }
+            if (only == null || !moves.slide(only, state)) {
+                return -1;
+            }
+            if (path != null) {
+                path.add(only);
+            }
+            forced++;
+        }
+        return forced;
+    }
+
+    // The single moves from the root to the state at index: every stored edge is its first
+    // slide followed by the chain of forced slides after it
+    private static List<Direction> expandPath(Board board, StateTable table, int index) {
+        int depth = 0;
+        for (int i = index; table.parent(i) >= 0; i = table.parent(i)) {
+            depth++;
+        }
+        int[] chain = new int[depth];
+        for (int i = index; table.parent(i) >= 0; i = table.parent(i)) {
+            chain[--depth] = i;
+        }
+
+        int stride = board.stride();
+        MoveGenerator moves = board.newMoveGenerator();
+        long[] state = new long[stride];
+        List<Direction> path = new ArrayList<>();
+        for (int i : chain) {
+            table.get(table.parent(i), state);
+            Direction d = table.direction(i);
+            moves.slide(state, d, state);
+            path.add(d);
+            followForced(board, moves, state, path);
+        }
+        return path;
+    }
+}
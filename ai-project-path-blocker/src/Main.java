@@ -6,7 +6,7 @@
    - Yes, we can achieve the optimal result with BFS in this problem because it is designed to find the shortest path in an unweighted environment. Since each move (up, down, left, right) has the same cost (essentially 1), BFS will find the shortest path to the goal without missing any shorter paths.
 
 3) How you achieved efficiency for keeping the states?
-   - Efficiency in keeping states was achieved by using a BitSet to represent the grid state for visited nodes and by using a queue (LinkedList) to store and process states level by level. This reduces memory overhead compared to storing the entire matrix repeatedly and keeps the BFS implementation fast and memory efficient.
+   - Efficiency in keeping states was achieved by packing every state (player position plus the wall bits of the grid) into a few long words stored back to back in one array, with a primitive open-addressing hash table on top for the visited check. Since states are appended in BFS order the same array also serves as the queue, so expanding a state allocates no objects and each visited state costs only its packed words plus two ints of index. Instead of the whole grid a state only keeps the free cells the player can still reach, so grids that differ in unreachable cells collapse into one state, and states whose region no longer contains the 'Y' are dropped.
 
 4) If you prefer to use DFS (tree version) then do you need to avoid cycles?
    - Yes, if using Depth-First Search (DFS), it is crucial to avoid cycles. In a grid environment, without cycle detection, DFS could enter infinite loops or revisit the same cells multiple times, resulting in inefficient pathfinding or failure to find the goal.
@@ -20,114 +20,75 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
 import java.io.*;
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.Timer;
 import java.util.List;
 import java.util.Queue;
 import java.util.*;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 public class Main extends JPanel {
     private Timer aiTimer;
     // import javax.swing.Timer;
     // import java.util.List;
-    private char[][] matrix;
-    private final int cellSize = 30; // Size for each cell
-    private int playerX, playerY;
+    private GameState game; // The level being played: grid, player and moves so far
+    private int cellSize = 30; // Size for each cell, scaled to the window when painting
+    private BufferedImage boardImage; // The cells of game, without the player, cellSize pixels each
+    private GameState boardImageState; // The game boardImage was drawn for
     private String levelFolder;
     private int currentLevel = 1; // Starting level
     private String currentLevelFolder = "level01";
-    private int moveCount = 0; // Counter for the number of moves
-    private List<List<int[]>> moveHistory = new ArrayList<>(); // Move history for undo
     private boolean isAIPlayer = false; // Flag to check if AI is playing
+    private final ScreenshotWriter screenshots = ScreenshotWriter.fromSystemProperties();
+    private boolean capturingScreenshot = false; // Hides the status overlays in screenshots
 
     public Main(char[][] matrix, String levelFolder) {
-        this.matrix = matrix;
         this.levelFolder = levelFolder;
-        initializePlayerPosition();
+        initializePlayerPosition(matrix);
+        PREFETCH.advanceTo(currentLevel, null); // Read the next levels while this one is played
         setFocusable(true);
         addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_R) {
+                    restartLevel(); // R key for restart, also cancels a running AI solve
+                    return;
+                }
                 if (isAIPlayer)
-                    return; // Ignore key presses if AI is playing
+                    return; // Ignore other key presses if AI is playing
                 switch (e.getKeyCode()) {
-                    case KeyEvent.VK_W -> movePlayer(0, -1, true); // W key
-                    case KeyEvent.VK_A -> movePlayer(-1, 0, true); // A key
-                    case KeyEvent.VK_S -> movePlayer(0, 1, true); // S key
-                    case KeyEvent.VK_D -> movePlayer(1, 0, true); // D key
-                    case KeyEvent.VK_R -> restartLevel(); // R key for restart
+                    case KeyEvent.VK_W -> movePlayer(Direction.UP); // W key
+                    case KeyEvent.VK_A -> movePlayer(Direction.LEFT); // A key
+                    case KeyEvent.VK_S -> movePlayer(Direction.DOWN); // S key
+                    case KeyEvent.VK_D -> movePlayer(Direction.RIGHT); // D key
                     case KeyEvent.VK_Z -> undoLastMove(); // Z key for undo
                 }
             }
         });
     }
 
-    private void initializePlayerPosition() {
-        int[] startPos = findStartingPosition(matrix);
-        if (startPos != null) {
-            playerX = startPos[0];
-            playerY = startPos[1];
+    // Starts the level from its matrix (the start and every move made are reset)
+    private void initializePlayerPosition(char[][] matrix) {
+        GameState state = GameState.fromMatrix(matrix);
+        if (state != null) {
+            game = state;
         } else {
             // Handle error: No starting position found
             JOptionPane.showMessageDialog(this, "No starting position 'X' found.", "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
-    private int[] findStartingPosition(char[][] matrix) {
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix[i].length; j++) {
-                if (matrix[i][j] == 'X') {
-                    matrix[i][j] = '0'; // Make the starting point walkable
-                    return new int[] { j, i };
-                }
-            }
-        }
-        return null;
-    }
-
-    private void movePlayer(int dx, int dy, boolean continuous) {
-        boolean moved = false;
-        List<int[]> currentMove = new ArrayList<>();
-        while (true) {
-            int newX = playerX + dx;
-            int newY = playerY + dy;
-
-            // Check boundaries and if the new position is walkable or is the goal 'Y'
-            if (newX >= 0 && newX < matrix[0].length && newY >= 0 && newY < matrix.length
-                    && (matrix[newY][newX] == '0' || matrix[newY][newX] == 'Y')) {
-                // Mark the current position as a wall
-                matrix[playerY][playerX] = '1';
-                // Save the current position to the current move for undo
-                currentMove.add(new int[] { playerX, playerY });
-                // Update player position
-                playerX = newX;
-                playerY = newY;
-                moved = true;
-
-                // If the player reaches 'Y', set a flag or handle level completion
-                if (matrix[playerY][playerX] == 'Y') {
-                    // Level completed
-                    matrix[playerY][playerX] = '0'; // Optional: Make the goal walkable
-                    break; // Stop moving after reaching the goal
-                }
-            } else {
-                break;
-            }
-
-            if (!continuous) {
-                break;
-            }
-        }
-
-        if (moved) {
-            // Save the entire movement as one action in move history
-            moveHistory.add(currentMove);
-            moveCount++; // Increment the move counter when the player moves
-            repaint();
+    private void movePlayer(Direction direction) {
+        // The slide ends before a wall ('1') or on a goal 'Y', which it captures
+        int fromX = game.playerX();
+        int fromY = game.playerY();
+        if (game.move(direction)) {
+            repaintCells(fromX, fromY, game.playerX(), game.playerY());
             takeScreenshot();
             checkForNextLevel(); // Check if the player has captured all 'Y' on the map
         }
@@ -135,24 +96,10 @@ public class Main extends JPanel {
 
     private void restartLevel() {
         // Clear all screenshots of the current level
+        screenshots.clearDirectory(Paths.get("Screenshots", currentLevelFolder));
         try {
-            Path screenshotDir = Paths.get("Screenshots", currentLevelFolder);
-            if (Files.exists(screenshotDir)) {
-                Files.walk(screenshotDir)
-                        .filter(Files::isRegularFile)
-                        .map(Path::toFile)
-                        .forEach(File::delete);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        try {
-            String filePath = "levels/level" + String.format("%02d", currentLevel) + ".txt";
-            char[][] newMatrix = readMatrixFromFile(filePath);
-            this.matrix = newMatrix;
-            initializePlayerPosition();
-            moveHistory.clear(); // Clear move history
-            moveCount = 0;
+            char[][] newMatrix = LevelLoader.read(levelSource(currentLevel));
+            initializePlayerPosition(newMatrix);
             repaint();
 
             // Stop and reset the AI timer before starting a new one
@@ -175,32 +122,14 @@ public class Main extends JPanel {
     private void undoLastMove() {
         if (isAIPlayer)
             return; // Do not allow undo if AI is playing
-        if (!moveHistory.isEmpty()) {
+        if (game.moveCount() > 0) {
             // Remove the latest screenshot of the current level
-            try {
-                Path screenshotDir = Paths.get("Screenshots", currentLevelFolder);
-                File latestScreenshot = new File(screenshotDir.toFile(), "screenshot_move_" + moveCount + ".png");
-                if (latestScreenshot.exists()) {
-                    latestScreenshot.delete();
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }
-        if (!moveHistory.isEmpty()) {
-            List<int[]> lastMove = moveHistory.remove(moveHistory.size() - 1);
-            // Restore all the player's previous positions in the last move
-            for (int[] position : lastMove) {
-                matrix[position[1]][position[0]] = '0'; // Make the position walkable again
-            }
-            // Set player position back to the last point before the move
-            if (!lastMove.isEmpty()) {
-                int[] lastPosition = lastMove.get(0);
-                playerX = lastPosition[0];
-                playerY = lastPosition[1];
-            }
-            moveCount--; // Decrement move count
-            repaint();
+            screenshots.delete(screenshotFile(game.moveCount()));
+            // Reopens the trail of the last move and restores a goal it captured
+            int fromX = game.playerX();
+            int fromY = game.playerY();
+            game.undo();
+            repaintCells(game.playerX(), game.playerY(), fromX, fromY);
         }
     }
 
@@ -208,14 +137,12 @@ public class Main extends JPanel {
         currentLevel++;
         currentLevelFolder = "level" + String.format("%02d", currentLevel);
         try {
-            String filePath = "levels/level" + String.format("%02d", currentLevel) + ".txt";
-            Path path = Paths.get(filePath);
-            if (Files.exists(path)) {
-                char[][] newMatrix = readMatrixFromFile(filePath);
-                this.matrix = newMatrix;
-                initializePlayerPosition();
-                moveHistory.clear(); // Clear move history
-                moveCount = 0;
+            // Usually the level was read, and for the AI solved, while the last one was played
+            String level = levelSource(currentLevel);
+            LevelPrefetcher.Level ahead = PREFETCH.ready(currentLevel);
+            if (ahead != null ? ahead.exists() : LevelLoader.exists(level)) {
+                char[][] newMatrix = ahead != null ? ahead.matrix() : LevelLoader.read(level);
+                initializePlayerPosition(newMatrix);
                 repaint();
 
                 // Stop and reset the AI timer before starting a new one
@@ -228,6 +155,8 @@ public class Main extends JPanel {
                     aiMoveIndex = 0;
                     aiPath = null;
                     startAIMovement();
+                } else {
+                    PREFETCH.advanceTo(currentLevel, null);
                 }
             } else {
                 System.out.println("All levels completed!");
@@ -238,19 +167,7 @@ public class Main extends JPanel {
     }
 
     private void checkForNextLevel() {
-        boolean yExists = false;
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix[i].length; j++) {
-                if (matrix[i][j] == 'Y') {
-                    yExists = true;
-                    break;
-                }
-            }
-            if (yExists) {
-                break;
-            }
-        }
-        if (!yExists) {
+        if (game.isSolved()) {
             nextLevel();
         }
     }
@@ -258,295 +175,259 @@ public class Main extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix[i].length; j++) {
-                if (i == playerY && j == playerX) {
-                    g.setColor(Color.YELLOW); // Player position
-                } else if (matrix[i][j] == '1') {
-                    g.setColor(Color.DARK_GRAY); // Walls
-                } else if (matrix[i][j] == 'Y') {
-                    g.setColor(Color.RED); // Goal point
+        if (game == null) {
+            return;
+        }
+        // Only the clip is copied, so a move that repainted a few cells costs a few cells
+        g.drawImage(boardImage(), 0, 0, null);
+        drawCell(g, game.playerX(), game.playerY(), Color.YELLOW); // Player position
+
+        if (capturingScreenshot) {
+            return;
+        }
+        // Progress indicator while the AI is still searching
+        SearchLimits limits = solveLimits;
+        if (limits != null) {
+            drawStatus(g, "Solving... " + limits.nodes() + " nodes", 0);
+        }
+        // Make it visible when the screenshot writer cannot keep up
+        if (screenshots.dropped() > 0) {
+            drawStatus(g, "Screenshots dropped: " + screenshots.dropped(), getHeight() - g.getFontMetrics().getHeight() - 8);
+        }
+    }
+
+    // The cached picture of the board, redrawn completely only for a new level or when the
+    // window size changes the cell size
+    private BufferedImage boardImage() {
+        int size = Math.max(4, Math.min((getWidth() - 1) / game.cols(), (getHeight() - 1) / game.rows()));
+        if (boardImage == null || boardImageState != game || size != cellSize) {
+            cellSize = size;
+            boardImageState = game;
+            boardImage = new BufferedImage(game.cols() * cellSize + 1, game.rows() * cellSize + 1,
+                    BufferedImage.TYPE_INT_RGB);
+            updateBoardImage(0, 0, game.cols() - 1, game.rows() - 1);
+        }
+        return boardImage;
+    }
+
+    // Redraws the cells from (x1, y1) to (x2, y2) into the board image
+    private void updateBoardImage(int x1, int y1, int x2, int y2) {
+        Graphics2D g2d = boardImage.createGraphics();
+        for (int i = Math.min(y1, y2); i <= Math.max(y1, y2); i++) {
+            for (int j = Math.min(x1, x2); j <= Math.max(x1, x2); j++) {
+                if (!game.isFree(j, i)) {
+                    drawCell(g2d, j, i, Color.DARK_GRAY); // Walls
+                } else if (game.isGoal(j, i)) {
+                    drawCell(g2d, j, i, Color.RED); // Goal point
                 } else {
-                    g.setColor(Color.LIGHT_GRAY); // Empty spaces
+                    drawCell(g2d, j, i, Color.LIGHT_GRAY); // Empty spaces
                 }
-                g.fillRect(j * cellSize, i * cellSize, cellSize, cellSize);
-                g.setColor(Color.BLACK);
-                g.drawRect(j * cellSize, i * cellSize, cellSize, cellSize);
             }
         }
+        g2d.dispose();
+    }
+
+    private void drawCell(Graphics g, int x, int y, Color color) {
+        g.setColor(color);
+        g.fillRect(x * cellSize, y * cellSize, cellSize, cellSize);
+        g.setColor(Color.BLACK);
+        g.drawRect(x * cellSize, y * cellSize, cellSize, cellSize);
+    }
+
+    // After a slide between two cells: brings those cells up to date in the board image
+    // and repaints only the rectangle they cover
+    private void repaintCells(int x1, int y1, int x2, int y2) {
+        if (boardImage == null || boardImageState != game) {
+            repaint(); // Not painted yet, the whole board is drawn anyway
+            return;
+        }
+        updateBoardImage(x1, y1, x2, y2);
+        repaint(Math.min(x1, x2) * cellSize, Math.min(y1, y2) * cellSize, (Math.abs(x2 - x1) + 1) * cellSize + 1,
+                (Math.abs(y2 - y1) + 1) * cellSize + 1);
+    }
+
+    private void drawStatus(Graphics g, String text, int y) {
+        g.setColor(new Color(0, 0, 0, 160));
+        g.fillRect(0, y, g.getFontMetrics().stringWidth(text) + 16, g.getFontMetrics().getHeight() + 8);
+        g.setColor(Color.WHITE);
+        g.drawString(text, 8, y + 4 + g.getFontMetrics().getAscent());
     }
 
     private void takeScreenshot() {
-        BufferedImage image = new BufferedImage(getWidth(), getHeight(), BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = image.createGraphics();
-        paint(g2d);
-        g2d.dispose();
+        // The screenshot is painted here and encoded and saved on the writer thread
+        if (!screenshots.shouldCapture(game.moveCount(), game.isSolved())) {
+            return;
+        }
+        capturingScreenshot = true;
         try {
-            // Create the directory for the current level if it doesn't exist
-            Path screenshotDir = Paths.get("Screenshots", currentLevelFolder);
-            if (!Files.exists(screenshotDir)) {
-                Files.createDirectories(screenshotDir);
-            }
-            // Save the screenshot with the move count
-            File outputfile = new File(screenshotDir.toFile(), "screenshot_move_" + moveCount + ".png");
-            ImageIO.write(image, "png", outputfile);
-        } catch (IOException ex) {
-            ex.printStackTrace();
+            screenshots.capture(this, screenshotFile(game.moveCount()));
+        } finally {
+            capturingScreenshot = false;
         }
     }
 
+    private Path screenshotFile(int move) {
+        return Paths.get("Screenshots", currentLevelFolder, "screenshot_move_" + move + "." + screenshots.extension());
+    }
+
     public static char[][] readMatrixFromFile(String filePath) throws IOException {
-        List<char[]> matrixList = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                String[] tokens = line.split("\\s+");
-                char[] row = new char[tokens.length];
-                for (int i = 0; i < tokens.length; i++) {
-                    row[i] = tokens[i].charAt(0);
-                }
-                matrixList.add(row);
-            }
-        }
-        return matrixList.toArray(new char[0][]);
+        return LevelLoader.readMatrixFromFile(filePath);
+    }
+
+    // Level n of the pack in -Dpathblocker.levelPack when set, otherwise levels/levelNN.txt
+    static String levelSource(int level) {
+        String pack = System.getProperty("pathblocker.levelPack");
+        return pack != null ? pack + "#" + level : "levels/level" + String.format("%02d", level) + ".txt";
     }
 
     // AI Implementation
-    private Queue<String> aiPath; // The path that the AI will follow as a queue
+    private Queue<Direction> aiPath; // The path that the AI will follow as a queue
     private int aiMoveIndex = 0; // The current move index in the aiPath
+    private String solverName = System.getProperty("pathblocker.solver", Solvers.DEFAULT); // See Solvers.names()
+    private SearchLimits solveLimits; // Limits of the solve in progress, null when none is running
+    private Timer progressTimer; // Repaints the progress indicator during a solve
+
+    private static final SolutionCache SOLUTION_CACHE = SolutionCache.fromSystemProperties();
+
+    // Reads and solves the next levels in the background, see LevelPrefetcher
+    private static final LevelPrefetcher PREFETCH = LevelPrefetcher.fromSystemProperties(Main::levelSource, SOLUTION_CACHE);
+
+    // Solves run here so the event dispatch thread never blocks on a search
+    private static final ExecutorService SOLVER_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ai-solver");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public void startAIMovement() {
+        startAIMovement(solverName);
+    }
+
+    public void startAIMovement(String solverName) {
         isAIPlayer = true;
+        this.solverName = solverName;
+        cancelSolve(); // A solve for the previous level or attempt is no longer needed
 
         try {
-            String filePath = "levels/level" + String.format("%02d", currentLevel) + ".txt";
-            char[][] initialMatrix = readMatrixFromFile(filePath);
-
-            // Deep copy to avoid modifying the original matrix
-            char[][] matrixCopy = deepCopyMatrix(initialMatrix);
+            int level = currentLevel;
+            LevelPrefetcher.Level ahead = PREFETCH.ready(level);
+            char[][] initialMatrix = ahead != null && ahead.exists() ? ahead.matrix() : LevelLoader.read(levelSource(level));
 
-            // Find the starting position in initialMatrix
-            int[] startPos = findStartingPosition(matrixCopy);
-            if (startPos == null) {
+            // The AI plays from the start of the level; the matrix itself stays untouched
+            GameState start = GameState.fromMatrix(initialMatrix);
+            if (start == null) {
                 JOptionPane.showMessageDialog(this, "No starting position 'X' found.", "Error",
                         JOptionPane.ERROR_MESSAGE);
                 return;
             }
-            int startX = startPos[0];
-            int startY = startPos[1];
-
-            // Update playerX and playerY to match the starting position
-            playerX = startX;
-            playerY = startY;
-
-            // Find the shortest path
-            List<String> pathList = findShortestPath(matrixCopy, startX, startY);
-            if (pathList == null) {
-                JOptionPane.showMessageDialog(this, "No path found by AI.", "Info", JOptionPane.INFORMATION_MESSAGE);
-                return;
-            }
-
-            // Print the path to the console for debugging
-            System.out.println("AI Path for Level " + currentLevel + ": " + String.join(" -> ", pathList));
-
-            // Initialize the queue for AI moves
-            aiPath = new LinkedList<>(pathList);
-
-            // Take the first move immediately before starting the timer
-            if (!aiPath.isEmpty()) {
-                String firstMove = aiPath.poll();
-                performAIMove(firstMove);
-            }
+            game = start;
+            repaint();
 
-            // Stop any existing timer before starting a new one
-            if (aiTimer != null) {
-                aiTimer.stop();
+            // Find the shortest path with the selected solver, off the event dispatch thread.
+            // A level solved ahead starts playing right away; one still being solved ahead is
+            // waited for rather than solved twice; levels solved before come straight from
+            // the solution cache.
+            SearchLimits limits = SearchLimits.fromSystemProperties();
+            solveLimits = limits;
+            PREFETCH.advanceTo(level, null); // Only read ahead until this level has its path
+            SolverResult solvedAhead = ahead != null ? ahead.result(solverName) : null;
+            if (solvedAhead != null) {
+                onSolveFinished(limits, level, solvedAhead, null);
+            } else {
+                Solver solver = Solvers.byName(solverName);
+                CompletableFuture.supplyAsync(() -> {
+                    LevelPrefetcher.Level pending = PREFETCH.await(level, solverName, limits);
+                    SolverResult result = pending != null ? pending.result(solverName) : null;
+                    return result != null ? result : SOLUTION_CACHE.solve(initialMatrix, solver, limits);
+                }, SOLVER_EXECUTOR).whenComplete((result, error) -> SwingUtilities
+                        .invokeLater(() -> onSolveFinished(limits, level, result, error)));
+                startProgressTimer();
             }
-
-            // Create and start a new timer for AI movement
-            aiTimer = new Timer(0, e -> {
-                if (!aiPath.isEmpty()) {
-                    String move = aiPath.poll();
-                    performAIMove(move);
-                } else {
-                    ((Timer) e.getSource()).stop();
-                }
-            });
-            aiTimer.start();
-
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    // A helper method to move the AI based on the move direction
-    private void performAIMove(String move) {
-        switch (move) {
-            case "up" -> movePlayer(0, -1, true);
-            case "down" -> movePlayer(0, 1, true);
-            case "left" -> movePlayer(-1, 0, true);
-            case "right" -> movePlayer(1, 0, true);
+    // Called on the event dispatch thread when a solve started by startAIMovement ends
+    private void onSolveFinished(SearchLimits limits, int level, SolverResult result, Throwable error) {
+        if (limits != solveLimits) {
+            return; // Cancelled or replaced by a newer solve
         }
-    }
-
-    private List<String> findShortestPath(char[][] initialMatrix, int startX, int startY) {
-        // Start time recording before the BFS starts
-        long startTime = System.nanoTime();
-
-        // Directions: left, right, up, down
-        int[] dx = { -1, 1, 0, 0 };
-        int[] dy = { 0, 0, -1, 1 };
-        String[] dirNames = { "left", "right", "up", "down" };
-
-        class State {
-            int x, y;
-            BitSet gridState;
-            List<String> path;
-
-            State(int x, int y, BitSet gridState, List<String> path) {
-                this.x = x;
-                this.y = y;
-                this.gridState = gridState;
-                this.path = path;
-            }
-
-            @Override
-            public int hashCode() {
-                int result = Objects.hash(x, y);
-                result = 31 * result + gridState.hashCode();
-                return result;
-            }
-
-            @Override
-            public boolean equals(Object obj) {
-                if (!(obj instanceof State))
-                    return false;
-                State other = (State) obj;
-                return this.x == other.x && this.y == other.y && this.gridState.equals(other.gridState);
-            }
+        solveLimits = null;
+        stopProgressTimer();
+        repaint();
+        if (error != null) {
+            error.printStackTrace();
+            return;
+        }
+        // Solve the next levels while this one is played back, which may finish it at once
+        PREFETCH.advanceTo(level, solverName);
+
+        System.out.println("Level " + level + " solved by " + result);
+        List<Direction> pathList = result.path();
+        if (pathList == null) {
+            String message = result.status() == SolverResult.Status.BUDGET_EXHAUSTED
+                    ? "No solution found by AI within the time/node budget."
+                    : "No path found by AI.";
+            JOptionPane.showMessageDialog(this, message, "Info", JOptionPane.INFORMATION_MESSAGE);
+            return;
         }
 
-        Queue<State> queue = new LinkedList<>();
-        Map<State, Integer> visited = new HashMap<>();
-
-        // Ensure we're using the initial matrix for pathfinding
-        BitSet initialGridState = gridToBitSet(initialMatrix);
-        List<String> initialPath = new ArrayList<>();
-
-        State initialState = new State(startX, startY, initialGridState, initialPath);
-        queue.add(initialState);
-        visited.put(initialState, 0);
-
-        int cols = initialMatrix[0].length; // Number of columns
-
-        while (!queue.isEmpty()) {
-            State current = queue.poll();
-
-            if (isGoal(current.x, current.y, initialMatrix)) {
-                // End time recording after the BFS completes
-                long endTime = System.nanoTime();
-
-                // Calculate duration in milliseconds
-                long duration = (endTime - startTime) / 1_000_000;
-
-                // Print the time taken for the BFS search
-                System.out.println("Time taken to find path: " + duration + " ms");
-
-                return current.path;
-            }
-
-            for (int d = 0; d < 4; d++) {
-                int nx = current.x;
-                int ny = current.y;
-                BitSet newGridState = (BitSet) current.gridState.clone();
-                List<String> newPath = new ArrayList<>(current.path);
-                newPath.add(dirNames[d]);
-
-                // Move in the direction until hitting a wall ('1')
-                boolean moved = false;
-                while (true) {
-                    int tx = nx + dx[d];
-                    int ty = ny + dy[d];
-                    if (tx < 0 || tx >= cols || ty < 0 || ty >= initialMatrix.length)
-                        break;
-                    char cell = getGridValue(newGridState, tx, ty, cols);
-                    if (cell == '1')
-                        break;
-
-                    // Leave a trail by turning '0's to '1's
-                    setGridValue(newGridState, nx, ny, '1', cols);
-
-                    nx = tx;
-                    ny = ty;
-                    moved = true;
-
-                    // If we reach the goal 'Y', we can stop moving further in this direction
-                    if (initialMatrix[ny][nx] == 'Y') {
-                        break;
-                    }
-                }
-
-                // Check if movement is possible (did we move?)
-                if (!moved)
-                    continue;
+        // Print the path to the console for debugging
+        System.out.println("AI Path for Level " + currentLevel + ": " + pathList.stream().map(Direction::toString).collect(Collectors.joining(" -> ")));
 
-                // Create new state
-                State newState = new State(nx, ny, newGridState, newPath);
+        // Initialize the queue for AI moves
+        aiPath = new LinkedList<>(pathList);
 
-                if (visited.containsKey(newState))
-                    continue;
-                visited.put(newState, newPath.size());
-                queue.add(newState);
-            }
+        // Take the first move immediately before starting the timer
+        if (!aiPath.isEmpty()) {
+            Direction firstMove = aiPath.poll();
+            performAIMove(firstMove);
         }
 
-        // End time recording if BFS search fails
-        long endTime = System.nanoTime();
-        long duration = (endTime - startTime) / 1_000_000;
-        System.out.println("BFS search failed to find a path. Time taken: " + duration + " ms");
-
-        return null; // No path found
-    }
+        // Stop any existing timer before starting a new one
+        if (aiTimer != null) {
+            aiTimer.stop();
+        }
 
-    private boolean isGoal(int x, int y, char[][] initialMatrix) {
-        return initialMatrix[y][x] == 'Y';
+        // Create and start a new timer for AI movement
+        aiTimer = new Timer(0, e -> {
+            if (!aiPath.isEmpty()) {
+                Direction move = aiPath.poll();
+                performAIMove(move);
+            } else {
+                ((Timer) e.getSource()).stop();
+            }
+        });
+        aiTimer.start();
     }
 
-    private BitSet gridToBitSet(char[][] grid) {
-        int rows = grid.length;
-        int cols = grid[0].length;
-        BitSet bitSet = new BitSet(rows * cols);
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                if (grid[i][j] == '1') {
-                    bitSet.set(i * cols + j);
-                }
-            }
+    // Stops the solve in progress, if any; its result will be ignored
+    private void cancelSolve() {
+        if (solveLimits != null) {
+            solveLimits.cancel();
+            solveLimits = null;
         }
-        return bitSet;
+        stopProgressTimer();
     }
 
-    private char getGridValue(BitSet bitSet, int x, int y, int cols) {
-        int index = y * cols + x;
-        return bitSet.get(index) ? '1' : '0';
+    // Repaints the progress indicator while a solve is running
+    private void startProgressTimer() {
+        stopProgressTimer();
+        progressTimer = new Timer(100, e -> repaint());
+        progressTimer.start();
     }
 
-    private void setGridValue(BitSet bitSet, int x, int y, char value, int cols) {
-        int index = y * cols + x;
-        if (value == '1') {
-            bitSet.set(index);
-        } else {
-            bitSet.clear(index);
+    private void stopProgressTimer() {
+        if (progressTimer != null) {
+            progressTimer.stop();
+            progressTimer = null;
         }
     }
 
-    private char[][] deepCopyMatrix(char[][] original) {
-        char[][] copy = new char[original.length][];
-        for (int i = 0; i < original.length; i++) {
-            copy[i] = Arrays.copyOf(original[i], original[i].length);
-        }
-        return copy;
+    // A helper method to move the AI based on the move direction
+    private void performAIMove(Direction move) {
+        movePlayer(move);
     }
 
     public static void main(String[] args) {
@@ -556,9 +437,8 @@ public class Main extends JPanel {
                 int choice = JOptionPane.showOptionDialog(null, "Select Player Type:", "Player Selection",
                         JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE, null, options, options[0]);
 
-                String filePath = "levels/level01.txt"; // Starting level file
-                String levelFolder = "level01"; // Extract level folder from the file path
-                char[][] matrix = readMatrixFromFile(filePath);
+                String levelFolder = "level01"; // Screenshot folder of the starting level
+                char[][] matrix = LevelLoader.read(levelSource(1));
 
                 JFrame frame = new JFrame("Game Canvas");
                 frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -0,0 +1,146 @@
+import java.util.Arrays;
+
+// Produces the successors of packed states for one board. A state is loaded into a
+// Bitboard once, then each slide is a bit scan for its end and a masked clear of its
+// trail. It also owns the scratch space of the reachability flood fill, so every
+// searching thread needs its own instance. Along the way it XORs the Zobrist keys (see
+// Board) of everything the slide changes into the loaded hash, so the hash of a successor
+// costs work in proportion to its trail and the cells cut off, not to the board area.
+public class MoveGenerator {
+    private final Board board;
+    private final int rows;
+    private final int cols;
+    private final Bitboard grid; // The loaded state
+    private final int[] stack; // Flood fill work list
+    private final long[] seen; // Cells already pushed during the flood fill
+    private int position = -1;
+    private long loadedHash;
+    private long successorHash;
+
+    MoveGenerator(Board board) {
+        this.board = board;
+        this.rows = board.rows();
+        this.cols = board.cols();
+        this.grid = new Bitboard(rows, cols);
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                if (board.cell(x, y) == 'Y') {
+                    grid.setGoal(x, y);
+                }
+            }
+        }
+        this.stack = new int[rows * cols];
+        this.seen = new long[board.stride()];
+    }
+
+    // Makes state the one that slide(Direction, long[]) moves from. successorHash is then
+    // not a real hash, use load(long[], long) where it is needed.
+    public void load(long[] state) {
+        load(state, 0);
+    }
+
+    // Makes state, whose Board.hash is hash, the one that slide(Direction, long[]) moves from
+    public void load(long[] state, long hash) {
+        grid.loadFree(state, 1);
+        position = (int) state[0];
+        loadedHash = hash;
+    }
+
+    // Hash of the state the last successful slide wrote, if its parent was loaded with its hash
+    public long successorHash() {
+        return successorHash;
+    }
+
+    // Loads state and slides it, see slide(Direction, long[])
+    public boolean slide(long[] state, Direction d, long[] next) {
+        load(state);
+        return slide(d, next);
+    }
+
+    // True if the player of the loaded state can slide in direction d without ending in a
+    // dead end. Much cheaper than slide, which may still turn the move down once its flood
+    // fill finds every 'Y' cut off.
+    public boolean canSlide(Direction d) {
+        int end = grid.slideEnd(position % cols, position / cols, d);
+        return end != position && !board.isDeadEnd(end);
+    }
+
+    // Slides the player of the loaded state in the given direction until the next cell is
+    // not free or it reaches a 'Y', leaving a trail behind, and writes the canonical
+    // successor to next. Returns false if the player cannot move that way, or if the
+    // trail cut every 'Y' off from the player, since such a state can never be solved.
+    // Slides into a dead end of the board are turned down before any flood fill.
+    public boolean slide(Direction d, long[] next) {
+        int x = position % cols;
+        int y = position / cols;
+        int end = grid.slideEnd(x, y, d);
+        if (end == position || board.isDeadEnd(end)) {
+            return false;
+        }
+
+        // Leave a trail by turning the cells before the end into walls. Along a row that is
+        // one masked clear per word; a column is spread over the rows, one bit each.
+        long hash = loadedHash ^ board.positionKey(position) ^ board.positionKey(end);
+        System.arraycopy(grid.rowWords(), 0, next, 1, next.length - 1);
+        if (d.dy == 0) {
+            int from = Math.min(position, end + 1);
+            int to = Math.max(position + 1, end);
+            Bits.clearRange(next, 1, from, to);
+            for (int i = from; i < to; i++) {
+                hash ^= board.cellKey(i);
+            }
+        } else {
+            for (int i = position; i != end; i += d.dy * cols) {
+                Bits.clear(next, 1, i);
+                hash ^= board.cellKey(i);
+            }
+        }
+
+        next[0] = end;
+        successorHash = hash ^ restrictToReachable(next);
+        return board.canReachGoal(next);
+    }
+
+    // Shrinks the region of state to the cells connected to the player position. Returns
+    // the XOR of the Zobrist keys of the cells that were dropped.
+    long restrictToReachable(long[] state) {
+        Arrays.fill(seen, 0L);
+        int start = (int) state[0];
+        int top = 0;
+        stack[top++] = start;
+        Board.setFree(seen, start);
+        while (top > 0) {
+            int index = stack[--top];
+            int x = index % cols;
+            if (x > 0) {
+                top = visit(state, index - 1, top);
+            }
+            if (x < cols - 1) {
+                top = visit(state, index + 1, top);
+            }
+            if (index >= cols) {
+                top = visit(state, index - cols, top);
+            }
+            if (index + cols < rows * cols) {
+                top = visit(state, index + cols, top);
+            }
+        }
+        // seen holds exactly the reachable cells, word 0 is unused
+        long dropped = 0;
+        for (int w = 1; w < seen.length; w++) {
+            for (long bits = state[w] & ~seen[w]; bits != 0; bits &= bits - 1) {
+                dropped ^= board.cellKey(((w - 1) << 6) + Long.numberOfTrailingZeros(bits));
+            }
+            state[w] = seen[w];
+        }
+        return dropped;
+    }
+
+    private int visit(long[] state, int index, int top) {
+        if (Board.isFree(state, index) && !Board.isFree(seen, index)) {
+            Board.setFree(seen, index);
+            stack[top++] = index;
+        }
+        return top;
+    }
+}
@@ -0,0 +1,340 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Level-synchronous BFS: every layer of the search is expanded by a ForkJoinPool, with
+// the visited states kept in a lock-striped set. When several parents reach the same new
+// state in a layer, the parent that comes first in the layer (then the lowest direction)
+// wins, and the next layer is ordered by that (parent, direction) key. That is exactly the
+// order the sequential BfsSolver dequeues states in, so both return the same path.
+//
+// The tasks report to the SearchLimits before every POLL_INTERVAL states they expand, so
+// a solve stops within one such batch per worker of its budget or cancellation rather
+// than at the end of a layer. Solvers with the same thread count share one pool for the life of the JVM:
+// Solvers hands out a new instance per lookup, and starting the workers again for every
+// level cost more than solving a small one. Idle workers still exit after a while.
+public class ParallelBfsSolver implements Solver {
+    private static final int SEGMENTS = 64; // Lock stripes of the visited set
+    private static final int SPLIT_THRESHOLD = 32; // Frontier states expanded per task
+    private static final int POLL_INTERVAL = 64; // States a task expands between budget checks
+    private static final ConcurrentMap<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private final int threads;
+
+    public ParallelBfsSolver(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    // Thread count from -Dpathblocker.threads, all processors by default
+    public static ParallelBfsSolver withConfiguredThreads() {
+        return new ParallelBfsSolver(
+                Integer.getInteger("pathblocker.threads", Runtime.getRuntime().availableProcessors()));
+    }
+
+    @Override
+    public String name() {
+        return "parallel-bfs";
+    }
+
+    @Override
+    public boolean solvesOnCallingThread() {
+        return false;
+    }
+
+    @Override
+    public SolverResult solve(Board board, SearchLimits limits) {
+        AllocationTally allocations = new AllocationTally();
+        long begin = allocations.begin();
+        SolverResult result = search(board, limits, allocations);
+        allocations.end(begin);
+        return result.withStats(result.stats().withAllocatedBytes(allocations.total()));
+    }
+
+    private SolverResult search(Board board, SearchLimits limits, AllocationTally allocations) {
+        long startTime = System.nanoTime();
+        int stride = board.stride();
+        ForkJoinPool pool = POOLS.computeIfAbsent(threads, ForkJoinPool::new);
+        Progress progress = new Progress(limits);
+        VisitedSet visited = new VisitedSet(stride);
+
+        // The frontier holds the packed states of the current layer back to back, and
+        // their hashes. For every finished layer only the parent index and direction are kept.
+        long[] frontier = new long[stride];
+        board.initialState(frontier);
+        long[] frontierHashes = { board.hash(frontier) };
+        visited.offer(frontier, frontierHashes[0], 0);
+        visited.startLayer();
+        int frontierSize = 1;
+        List<int[]> parents = new ArrayList<>();
+        List<byte[]> directions = new ArrayList<>();
+        parents.add(new int[] { -1 });
+        directions.add(new byte[1]);
+        long peakMemory = 0;
+        int peakFrontier = 1;
+
+        while (frontierSize > 0) {
+            // The frontier is in sequential BFS order, so its first goal is the BFS answer
+            for (int i = 0; i < frontierSize; i++) {
+                if (board.isGoal((int) frontier[i * stride])) {
+                    List<Direction> path = rebuildPath(parents, directions, i);
+                    return new SolverResult(name(), path, progress.expanded() + i + 1,
+                            System.nanoTime() - startTime)
+                            .withPeakMemoryBytes(peakMemory).withStats(visited.stats(peakFrontier));
+                }
+            }
+
+            pool.invoke(new ExpandTask(board, visited, frontier, frontierHashes, 0, frontierSize, progress, allocations));
+            if (progress.isStopped()) {
+                return SolverResult.stopped(name(), limits, progress.expanded(), System.nanoTime() - startTime)
+                        .withPeakMemoryBytes(peakMemory).withStats(visited.stats(peakFrontier));
+            }
+
+            // Order the new layer by its (parent, direction) key
+            int nextSize = visited.layerSize();
+            long[] order = new long[nextSize];
+            long[] refs = new long[nextSize];
+            visited.collectLayer(order, refs);
+            Arrays.parallelSort(order);
+            long[] nextFrontier = new long[Math.max(1, nextSize) * stride];
+            long[] nextHashes = new long[nextSize];
+            int[] layerParents = new int[nextSize];
+            byte[] layerDirections = new byte[nextSize];
+            long[] state = new long[stride];
+            peakMemory = Math.max(peakMemory, visited.memoryBytes()
+                    + (frontier.length + nextFrontier.length + frontierHashes.length + nextHashes.length
+                            + order.length + refs.length) * 8L);
+            for (int n = 0; n < nextSize; n++) {
+                int key = (int) (order[n] >>> 32);
+                visited.get(refs[(int) order[n]], state);
+                System.arraycopy(state, 0, nextFrontier, n * stride, stride);
+                nextHashes[n] = visited.hash(refs[(int) order[n]]);
+                layerParents[n] = key >>> 2;
+                layerDirections[n] = (byte) (key & 3);
+            }
+            visited.startLayer();
+            parents.add(layerParents);
+            directions.add(layerDirections);
+            frontier = nextFrontier;
+            frontierHashes = nextHashes;
+            frontierSize = nextSize;
+            peakFrontier = Math.max(peakFrontier, frontierSize);
+        }
+
+        return new SolverResult(name(), null, progress.expanded(), System.nanoTime() - startTime)
+                .withPeakMemoryBytes(peakMemory).withStats(visited.stats(peakFrontier));
+    }
+
+    private static List<Direction> rebuildPath(List<int[]> parents, List<byte[]> directions, int index) {
+        int depth = parents.size() - 1;
+        Direction[] path = new Direction[depth];
+        for (int layer = depth; layer > 0; layer--) {
+            path[layer - 1] = Direction.fromCode(directions.get(layer)[index]);
+            index = parents.get(layer)[index];
+        }
+        return Arrays.asList(path);
+    }
+
+    // States expanded by all tasks of a solve. SearchLimits is not thread-safe, so the tasks
+    // report to it one at a time.
+    private static class Progress {
+        private final SearchLimits limits;
+        private long expanded;
+        private volatile boolean stopped;
+
+        Progress(SearchLimits limits) {
+            this.limits = limits;
+        }
+
+        // Counts states a task is about to expand; true if it must give up instead
+        synchronized boolean add(int states) {
+            if (!stopped) {
+                expanded += states;
+                stopped = limits.shouldStop(expanded);
+            }
+            return stopped;
+        }
+
+        synchronized long expanded() {
+            return expanded;
+        }
+
+        boolean isStopped() {
+            return stopped;
+        }
+    }
+
+    // Expands a range of the frontier, splitting it while it is large enough
+    private static class ExpandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final VisitedSet visited;
+        private final long[] frontier;
+        private final long[] frontierHashes;
+        private final int from;
+        private final int to;
+        private final Progress progress;
+        private final AllocationTally allocations;
+
+        ExpandTask(Board board, VisitedSet visited, long[] frontier, long[] frontierHashes, int from, int to,
+                Progress progress, AllocationTally allocations) {
+            this.board = board;
+            this.visited = visited;
+            this.frontier = frontier;
+            this.frontierHashes = frontierHashes;
+            this.from = from;
+            this.to = to;
+            this.progress = progress;
+            this.allocations = allocations;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ExpandTask(board, visited, frontier, frontierHashes, from, mid, progress, allocations),
+                        new ExpandTask(board, visited, frontier, frontierHashes, mid, to, progress, allocations));
+                return;
+            }
+            long begin = allocations.begin();
+            try {
+                expand();
+            } finally {
+                allocations.end(begin);
+            }
+        }
+
+        private void expand() {
+            int stride = board.stride();
+            MoveGenerator moves = board.newMoveGenerator();
+            long[] current = new long[stride];
+            long[] next = new long[stride];
+            for (int i = from; i < to; i++) {
+                if ((i - from) % POLL_INTERVAL == 0 && progress.add(Math.min(POLL_INTERVAL, to - i))) {
+                    return;
+                }
+                System.arraycopy(frontier, i * stride, current, 0, stride);
+                moves.load(current, frontierHashes[i]);
+                for (Direction d : Direction.values()) {
+                    if (moves.slide(d, next)) {
+                        visited.offer(next, moves.successorHash(), i * 4 + d.code());
+                    }
+                }
+            }
+        }
+    }
+
+    // Visited states split over SEGMENTS independently locked StateTables. States added
+    // in the current layer remember the smallest (parent, direction) key that reached them.
+    private static class VisitedSet {
+        private final Segment[] segments = new Segment[SEGMENTS];
+
+        VisitedSet(int stride) {
+            for (int i = 0; i < SEGMENTS; i++) {
+                segments[i] = new Segment(stride);
+            }
+        }
+
+        void offer(long[] state, long hash, int key) {
+            // StateTable probes with the low bits of the hash, so stripe on the high bits
+            Segment segment = segments[(int) (hash >>> 58)];
+            synchronized (segment) {
+                segment.offer(state, hash, key);
+            }
+        }
+
+        // Marks everything added so far as belonging to earlier layers
+        void startLayer() {
+            for (Segment segment : segments) {
+                segment.layerStart = segment.table.size();
+            }
+        }
+
+        int layerSize() {
+            int count = 0;
+            for (Segment segment : segments) {
+                count += segment.table.size() - segment.layerStart;
+            }
+            return count;
+        }
+
+        // Lists the states of the current layer: refs[i] locates state i, and order[i]
+        // holds its (parent, direction) key in the high word and i in the low word
+        void collectLayer(long[] order, long[] refs) {
+            int n = 0;
+            for (int s = 0; s < SEGMENTS; s++) {
+                Segment segment = segments[s];
+                for (int index = segment.layerStart; index < segment.table.size(); index++) {
+                    order[n] = ((long) segment.keys[index] << 32) | n;
+                    refs[n] = ((long) s << 32) | index;
+                    n++;
+                }
+            }
+        }
+
+        long memoryBytes() {
+            long bytes = 0;
+            for (Segment segment : segments) {
+                bytes += segment.table.memoryBytes() + segment.keys.length * 4L;
+            }
+            return bytes;
+        }
+
+        void get(long ref, long[] dst) {
+            segments[(int) (ref >>> 32)].table.get((int) ref, dst);
+        }
+
+        long hash(long ref) {
+            return segments[(int) (ref >>> 32)].table.hash((int) ref);
+        }
+
+        // Totals over the segments; only called between layers, when no task is running
+        SearchStats stats(long peakFrontier) {
+            long offers = 0;
+            long duplicates = 0;
+            int size = 0;
+            long slots = 0;
+            for (Segment segment : segments) {
+                offers += segment.offers;
+                duplicates += segment.duplicates;
+                size += segment.table.size();
+                slots += segment.table.indexSlots();
+            }
+            // The root is offered too, but it is not a generated successor
+            return new SearchStats(offers - 1, duplicates, peakFrontier, size, (double) size / slots);
+        }
+    }
+
+    private static class Segment {
+        final StateTable table;
+        int[] keys = new int[64];
+        int layerStart;
+        long offers; // Guarded by the segment lock, like the table
+        long duplicates;
+
+        Segment(int stride) {
+            this.table = new StateTable(stride, 64);
+        }
+
+        void offer(long[] state, long hash, int key) {
+            offers++;
+            int index = table.indexOf(state, hash);
+            if (index < 0) {
+                index = table.add(state, hash, -1, 0);
+                if (index == keys.length) {
+                    keys = Arrays.copyOf(keys, keys.length * 2);
+                }
+                keys[index] = key;
+            } else {
+                duplicates++;
+                if (index >= layerStart && key < keys[index]) {
+                    keys[index] = key;
+                }
+            }
+        }
+    }
+}
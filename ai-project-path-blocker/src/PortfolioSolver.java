@@ -0,0 +1,188 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+
+// Races several solvers on the same board, since which one is fastest depends a lot on
+// the board: BFS on tight ones, best-first or depth-first on open ones. Every member runs
+// on its own thread under a child of the caller's limits, so the members share the
+// caller's node budget. The first member to return a path within the optimality bound
+// wins, or the first to prove there is none, and the others are cancelled through their
+// limits and stop at their next check.
+//
+// Members run on virtual threads when the runtime has them (Java 21 and later), on
+// platform threads otherwise. The allocation reported is that of all members, which the
+// JVM can only measure on platform threads, so on Java 21 it is unknown. If no member wins
+// and one of them threw, the exception is rethrown instead of reporting a stop.
+public class PortfolioSolver implements Solver {
+    private static final ExecutorService RACERS = VirtualThreads.perTaskExecutor("portfolio-racer");
+
+    private final List<Solver> members;
+    private final double optimalityBound;
+
+    // Members with a larger optimalityBound than the given one are left out of the race
+    public PortfolioSolver(List<Solver> candidates, double optimalityBound) {
+        this.members = new ArrayList<>();
+        for (Solver member : candidates) {
+            if (member.optimalityBound() <= optimalityBound) {
+                members.add(member);
+            }
+        }
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("No portfolio member within an optimality bound of " + optimalityBound);
+        }
+        this.optimalityBound = optimalityBound;
+    }
+
+    // Members from -Dpathblocker.portfolio, a comma separated list of solver names, and the
+    // bound from -Dpathblocker.optimalityBound, 1 (shortest paths only) by default
+    public static PortfolioSolver fromSystemProperties() {
+        List<Solver> members = new ArrayList<>();
+        for (String name : System.getProperty("pathblocker.portfolio", "macro-bfs,astar,idastar,wastar").split(",")) {
+            if (name.trim().equalsIgnoreCase("portfolio")) {
+                throw new IllegalArgumentException("A portfolio cannot contain itself");
+            }
+            members.add(Solvers.uninstrumented(name.trim()));
+        }
+        return new PortfolioSolver(members, Double.parseDouble(System.getProperty("pathblocker.optimalityBound", "1")));
+    }
+
+    @Override
+    public String name() {
+        return "portfolio";
+    }
+
+    // Which member wins decides the path, so the members are part of the version
+    @Override
+    public int version() {
+        int version = 1;
+        for (Solver member : members) {
+            version = 31 * version + (member.name() + "/" + member.version()).hashCode();
+        }
+        return version;
+    }
+
+    @Override
+    public double optimalityBound() {
+        return optimalityBound;
+    }
+
+    public List<String> memberNames() {
+        List<String> names = new ArrayList<>();
+        for (Solver member : members) {
+            names.add(member.name());
+        }
+        return names;
+    }
+
+    @Override
+    public boolean solvesOnCallingThread() {
+        return false;
+    }
+
+    @Override
+    public SolverResult solve(Board board, SearchLimits limits) {
+        long startTime = System.nanoTime();
+        AllocationTally allocations = new AllocationTally();
+        long begin = allocations.begin();
+        BlockingQueue<Finish> finished = new LinkedBlockingQueue<>();
+        List<SearchLimits> racing = new ArrayList<>();
+        for (Solver member : members) {
+            SearchLimits memberLimits = limits.child();
+            racing.add(memberLimits);
+            RACERS.execute(() -> {
+                long memberBegin = allocations.begin();
+                try {
+                    finished.add(new Finish(member.solve(board, memberLimits), null));
+                } catch (RuntimeException | Error e) {
+                    finished.add(new Finish(null, e));
+                } finally {
+                    allocations.end(memberBegin);
+                }
+            });
+        }
+
+        SolverResult winner = null;
+        SolverResult stopped = null;
+        Throwable failure = null;
+        int running = members.size();
+        try {
+            while (running > 0 && winner == null) {
+                Finish finish = finished.take();
+                running--;
+                if (finish.failure != null) {
+                    if (failure == null) {
+                        failure = finish.failure;
+                    } else {
+                        failure.addSuppressed(finish.failure);
+                    }
+                    continue;
+                }
+                SolverResult result = finish.result;
+                if (result.status() == SolverResult.Status.SOLVED || result.status() == SolverResult.Status.NO_SOLUTION) {
+                    winner = result;
+                } else {
+                    stopped = result;
+                }
+            }
+            for (SearchLimits memberLimits : racing) {
+                memberLimits.cancel();
+            }
+            // The others stop at their next check. Waiting for them keeps their work out of
+            // the caller's next solve and lets their allocation be counted.
+            for (; running > 0; running--) {
+                Finish late = finished.take();
+                if (late.failure != null) {
+                    late.failure.printStackTrace(); // Lost the race anyway, but still a bug
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            limits.cancel();
+        } finally {
+            for (SearchLimits memberLimits : racing) {
+                memberLimits.cancel();
+            }
+        }
+        allocations.end(begin);
+        // Members on virtual threads cannot be measured, then the total stays unknown
+        long allocated = running == 0 ? allocations.total() : -1;
+
+        if (winner != null) {
+            return asPortfolioResult(winner, startTime, allocated);
+        }
+        // A member that crashed is a bug, not a spent budget, so it is not hidden behind
+        // the others giving up; the other members have had their chance to win by now
+        if (failure != null && !limits.isCancelled()) {
+            if (failure instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) failure;
+        }
+        // Every member gave up, on the caller's budget or because the caller cancelled. The
+        // members share the budget, so the nodes of all of them are reported.
+        long expanded = Math.max(limits.nodes(), stopped != null ? stopped.nodesExpanded() : 0);
+        return SolverResult.stopped(name(), limits, expanded, System.nanoTime() - startTime)
+                .withStats(SearchStats.NONE.withAllocatedBytes(allocated));
+    }
+
+    // How a member's solve ended: with a result, or with the exception it threw
+    private static class Finish {
+        final SolverResult result;
+        final Throwable failure;
+
+        Finish(SolverResult result, Throwable failure) {
+            this.result = result;
+            this.failure = failure;
+        }
+    }
+
+    // The winner's result under the portfolio's name, with the time of the whole race and
+    // the allocation of all members
+    private SolverResult asPortfolioResult(SolverResult winner, long startTime, long allocated) {
+        return new SolverResult(name(), winner.path(), winner.nodesExpanded(), System.nanoTime() - startTime)
+                .withPeakMemoryBytes(winner.peakMemoryBytes()).withStats(winner.stats().withAllocatedBytes(allocated))
+                .withWinner(winner.solverName());
+    }
+}
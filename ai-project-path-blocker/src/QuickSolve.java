@@ -0,0 +1,92 @@
+import java.io.IOException;
+import java.util.List;
+
+// Solves a single level and exits, for scripts that call the solver once per level. Where
+// BatchSolver is built for many levels, this is built to start fast: it loads no AWT,
+// Swing or ImageIO class, and no thread pool, JFR or JMX class either, since the solver
+// is taken uninstrumented. Class loading is most of the time of such a run, so the
+// "appcds" Maven profile dumps the classes of one run into an archive that later runs
+// map instead of loading them again, and the "native" profile builds it with GraalVM
+// native-image (see the README).
+//
+// Usage: java QuickSolve <level file|pack.pbl#n|-> [--solver macro-bfs] [--time-budget ms] [--node-budget nodes]
+//
+// "-" reads the level from standard input. Prints the moves on one line, e.g.
+// "up left down", and the outcome to standard error. Exits with 0 if a path was found,
+// 1 if there is none or the budget ran out, and 2 on bad arguments or an unreadable level.
+public class QuickSolve {
+    // A single solver on the main thread: in a fresh JVM everything runs interpreted at
+    // first, and racing the portfolio's four solvers on cold code costs more than it wins
+    private static final String DEFAULT_SOLVER = "macro-bfs";
+
+    public static void main(String[] args) {
+        String source = null;
+        String solverName = DEFAULT_SOLVER;
+        long timeBudgetMillis = 0;
+        long nodeBudget = 0;
+        Solver solver;
+        char[][] matrix;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (!args[i].startsWith("--")) {
+                    if (source != null) {
+                        throw new IllegalArgumentException("Only one level can be given");
+                    }
+                    source = args[i];
+                    continue;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i++]) {
+                    case "--solver" -> solverName = value;
+                    case "--time-budget" -> timeBudgetMillis = Long.parseLong(value);
+                    case "--node-budget" -> nodeBudget = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+                }
+            }
+            if (source == null) {
+                throw new IllegalArgumentException("No level given");
+            }
+            solver = Solvers.uninstrumented(solverName);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java QuickSolve <level file|pack.pbl#n|-> [--solver " + DEFAULT_SOLVER
+                    + "] [--time-budget ms] [--node-budget nodes]");
+            System.exit(2);
+            return;
+        }
+        try {
+            matrix = source.equals("-") ? LevelLoader.parse(System.in.readAllBytes()) : LevelLoader.read(source);
+        } catch (IOException e) {
+            System.err.println("Cannot read level " + source + ": " + e);
+            System.exit(2);
+            return;
+        }
+
+        Board board = Board.fromMatrix(matrix);
+        if (board == null) {
+            System.err.println("No starting position 'X' found in " + source);
+            System.exit(2);
+            return;
+        }
+        SolverResult result = solver.solve(board, new SearchLimits(timeBudgetMillis, nodeBudget));
+        System.err.println(result);
+        if (!result.isSolved()) {
+            System.exit(1);
+        }
+        System.out.println(movesLine(result.path()));
+    }
+
+    private static String movesLine(List<Direction> path) {
+        StringBuilder line = new StringBuilder();
+        for (Direction d : path) {
+            if (line.length() > 0) {
+                line.append(' ');
+            }
+            line.append(d);
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,264 @@
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import javax.imageio.ImageIO;
+import javax.swing.JComponent;
+
+// Writes move screenshots on a background thread. The event dispatch thread only paints
+// the component into one of a fixed pool of frame buffers and queues it; encoding and
+// file IO happen on the writer thread, which hands the buffer back to the pool. When
+// every buffer is still waiting to be written the frame is dropped instead of blocking
+// the game, and the drop is counted. Deletions go through the same queue, so they are
+// applied after the writes queued before them. The queue holds one task per frame buffer
+// plus CONTROL_TASKS deletions; a deletion that finds it full is dropped and counted too.
+public class ScreenshotWriter {
+    private static final int CONTROL_TASKS = 64; // Queued deletions beyond the frame writes
+
+    // Which moves get a screenshot
+    public enum Policy {
+        EVERY_MOVE, EVERY_NTH_MOVE, END_OF_LEVEL, OFF
+    }
+
+    // PNG is small but slow to encode; RAW writes an uncompressed binary PPM
+    public enum Format {
+        PNG("png"), RAW("ppm");
+
+        final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    private final Policy policy;
+    private final int interval; // For EVERY_NTH_MOVE
+    private final Format format;
+    private final BlockingQueue<BufferedImage> freeFrames;
+    private final BlockingQueue<Runnable> tasks;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private byte[] rawBuffer = new byte[0]; // RGB bytes of a RAW frame, writer thread only
+
+    public ScreenshotWriter(Policy policy, int interval, Format format, int frameBuffers) {
+        this.policy = policy;
+        this.interval = Math.max(1, interval);
+        this.format = format;
+        this.freeFrames = new ArrayBlockingQueue<>(frameBuffers);
+        this.tasks = new ArrayBlockingQueue<>(frameBuffers + CONTROL_TASKS);
+        for (int i = 0; i < frameBuffers; i++) {
+            freeFrames.add(new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB));
+        }
+        Thread writer = new Thread(this::run, "screenshot-writer");
+        writer.setDaemon(true);
+        writer.start();
+        // Let queued screenshots reach the disk when the window is closed
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(2000)));
+    }
+
+    // Reads -Dpathblocker.screenshots (every, nth:N, end or off, default every) and
+    // -Dpathblocker.screenshotFormat (png or raw, default png). Main creates the writer
+    // while it is constructed, so a bad N is warned about and every move is captured
+    // instead of failing the start of the game.
+    public static ScreenshotWriter fromSystemProperties() {
+        String mode = System.getProperty("pathblocker.screenshots", "every").toLowerCase();
+        Policy policy = Policy.EVERY_MOVE;
+        int interval = 1;
+        if (mode.startsWith("nth")) {
+            int n = 5;
+            if (mode.contains(":")) {
+                try {
+                    n = Integer.parseInt(mode.substring(mode.indexOf(':') + 1).trim());
+                } catch (NumberFormatException e) {
+                    n = 0;
+                }
+            }
+            if (n >= 1) {
+                policy = Policy.EVERY_NTH_MOVE;
+                interval = n;
+            } else {
+                System.err.println("Ignoring -Dpathblocker.screenshots=" + mode
+                        + ", N must be a positive whole number; taking a screenshot of every move");
+            }
+        } else if (mode.equals("end")) {
+            policy = Policy.END_OF_LEVEL;
+        } else if (mode.equals("off")) {
+            policy = Policy.OFF;
+        }
+        Format format = System.getProperty("pathblocker.screenshotFormat", "png").equalsIgnoreCase("raw")
+                ? Format.RAW
+                : Format.PNG;
+        return new ScreenshotWriter(policy, interval, format, 8);
+    }
+
+    public String extension() {
+        return format.extension;
+    }
+
+    public boolean shouldCapture(int moveCount, boolean levelComplete) {
+        switch (policy) {
+            case EVERY_MOVE:
+                return true;
+            case EVERY_NTH_MOVE:
+                return moveCount % interval == 0 || levelComplete;
+            case END_OF_LEVEL:
+                return levelComplete;
+            default:
+                return false;
+        }
+    }
+
+    // Paints component into a pooled frame and queues it to be written to file.
+    // Must be called on the event dispatch thread. Returns false if the frame was dropped.
+    public boolean capture(JComponent component, Path file) {
+        BufferedImage frame = freeFrames.poll();
+        if (frame == null) {
+            countDrop();
+            return false;
+        }
+        int width = Math.max(1, component.getWidth());
+        int height = Math.max(1, component.getHeight());
+        if (frame.getWidth() != width || frame.getHeight() != height) {
+            frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        Graphics2D g2d = frame.createGraphics();
+        component.paint(g2d);
+        g2d.dispose();
+
+        BufferedImage image = frame;
+        boolean queued = submit(() -> {
+            try {
+                write(image, file);
+                written.incrementAndGet();
+            } finally {
+                freeFrames.add(image);
+            }
+        });
+        if (!queued) {
+            freeFrames.add(image);
+        }
+        return queued;
+    }
+
+    public void delete(Path file) {
+        submit(() -> Files.deleteIfExists(file));
+    }
+
+    // Deletes every file in the directory
+    public void clearDirectory(Path directory) {
+        submit(() -> {
+            if (Files.exists(directory)) {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    files.filter(Files::isRegularFile).sorted(Comparator.reverseOrder())
+                            .forEach(path -> path.toFile().delete());
+                }
+            }
+        });
+    }
+
+    // Frames and deletions still waiting for the writer thread
+    public long pending() {
+        return pending.get();
+    }
+
+    public long written() {
+        return written.get();
+    }
+
+    // Frames and deletions dropped because the writer was behind
+    public long dropped() {
+        return dropped.get();
+    }
+
+    // Waits up to timeoutMillis for the queue to drain
+    public void flush(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (pending.get() > 0 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private interface IoTask {
+        void run() throws IOException;
+    }
+
+    // Queues the task for the writer thread; false, and counted as dropped, if the queue is full
+    private boolean submit(IoTask task) {
+        pending.incrementAndGet();
+        boolean queued = tasks.offer(() -> {
+            try {
+                task.run();
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+        if (!queued) {
+            pending.decrementAndGet();
+            countDrop();
+        }
+        return queued;
+    }
+
+    private void countDrop() {
+        long drops = dropped.incrementAndGet();
+        if (drops == 1 || drops % 100 == 0) {
+            System.err.println("Screenshot writer is behind, " + drops + " frame(s) or deletion(s) dropped so far");
+        }
+    }
+
+    private void run() {
+        while (true) {
+            try {
+                tasks.take().run();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void write(BufferedImage image, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        if (format == Format.PNG) {
+            ImageIO.write(image, "png", file.toFile());
+            return;
+        }
+        // Binary PPM: a short text header followed by raw RGB bytes
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        if (rawBuffer.length != pixels.length * 3) {
+            rawBuffer = new byte[pixels.length * 3];
+        }
+        byte[] rgb = rawBuffer;
+        for (int i = 0; i < pixels.length; i++) {
+            rgb[3 * i] = (byte) (pixels[i] >>> 16);
+            rgb[3 * i + 1] = (byte) (pixels[i] >>> 8);
+            rgb[3 * i + 2] = (byte) pixels[i];
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            out.write(("P6\n" + width + " " + height + "\n255\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(rgb);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+// Time and node budget of a single solve, plus a cancellation flag that can be set from
+// another thread. Solvers call shouldStop with their running count of expanded nodes;
+// the clock is only read once CLOCK_INTERVAL more nodes were expanded, to keep the check
+// cheap. The node count is published for progress displays.
+//
+// A child (see child()) has the same deadline, shares the node budget with its parent
+// and the parent's other children, and also stops once its parent is cancelled. Children
+// are what the members of a portfolio race run under; they yield the thread at every
+// clock read so that racing searches share the processors even as virtual threads.
+public class SearchLimits {
+    private static final int CLOCK_INTERVAL = 64;
+
+    private final long maxNodes; // 0 = unlimited
+    private final long deadline; // System.nanoTime() deadline, 0 = unlimited
+    private final SearchLimits parent; // null for a top-level solve
+    private final AtomicLong childNodes = new AtomicLong(); // Nodes reported by all children
+    private volatile boolean cancelled;
+    private volatile long nodes;
+    private volatile boolean budgetExhausted;
+    private long lastClockCheck; // Node count at the last clock read, owned by the solving thread
+
+    public SearchLimits(long timeBudgetMillis, long maxNodes) {
+        this(maxNodes, timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000 : 0, null);
+    }
+
+    private SearchLimits(long maxNodes, long deadline, SearchLimits parent) {
+        this.maxNodes = maxNodes;
+        this.deadline = deadline;
+        this.parent = parent;
+    }
+
+    // Limits with the same deadline that can be cancelled on their own or through this one.
+    // The nodes of all children count against this one's node budget together.
+    public SearchLimits child() {
+        return new SearchLimits(maxNodes, deadline, this);
+    }
+
+    public static SearchLimits unlimited() {
+        return new SearchLimits(0, 0);
+    }
+
+    // Budget from -Dpathblocker.timeBudgetMs and -Dpathblocker.nodeBudget, unlimited by default
+    public static SearchLimits fromSystemProperties() {
+        return new SearchLimits(Long.getLong("pathblocker.timeBudgetMs", 0),
+                Long.getLong("pathblocker.nodeBudget", 0));
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || parent != null && parent.isCancelled();
+    }
+
+    // Nodes expanded so far, as last reported through shouldStop
+    public long nodes() {
+        return nodes;
+    }
+
+    // True once the search must give up, either cancelled or out of budget
+    public boolean shouldStop(long expanded) {
+        if (cancelled || budgetExhausted) {
+            return true;
+        }
+        if (expanded - lastClockCheck >= CLOCK_INTERVAL) {
+            long delta = expanded - lastClockCheck;
+            lastClockCheck = expanded;
+            nodes = expanded;
+            if (deadline != 0 && System.nanoTime() - deadline > 0) {
+                budgetExhausted = true;
+            }
+            if (parent != null) {
+                if (parent.isCancelled()) {
+                    cancelled = true;
+                    return true;
+                }
+                parent.nodes = parent.childNodes.addAndGet(delta); // Progress of all members together
+                Thread.yield();
+            }
+        }
+        // A child's budget is spent by everything its siblings reported plus its own nodes since
+        long spent = parent == null ? expanded : parent.childNodes.get() + expanded - lastClockCheck;
+        if (maxNodes > 0 && spent >= maxNodes) {
+            budgetExhausted = true;
+        }
+        return budgetExhausted;
+    }
+
+    // Status to report for a search that stopped because shouldStop returned true
+    public SolverResult.Status stopStatus() {
+        return isCancelled() ? SolverResult.Status.CANCELLED : SolverResult.Status.BUDGET_EXHAUSTED;
+    }
+}
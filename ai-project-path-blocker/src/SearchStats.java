@@ -0,0 +1,59 @@
+// Counters a solver reports next to its result, to tell where the time of a slow solve
+// went. Solvers count in locals and build one of these when they return.
+public class SearchStats {
+    public static final SearchStats NONE = new SearchStats(0, 0, 0, 0, 0);
+
+    private final long nodesGenerated; // Successors produced by slides
+    private final long duplicates; // Successors that were already in the visited table
+    private final long peakFrontier; // Largest open list, queue or search depth
+    private final int tableSize; // States in the visited table at the end
+    private final double loadFactor; // Of the visited table's index at the end
+    private final long allocatedBytes; // Heap allocated by the solve's threads, -1 if unknown
+
+    public SearchStats(long nodesGenerated, long duplicates, long peakFrontier, int tableSize, double loadFactor) {
+        this(nodesGenerated, duplicates, peakFrontier, tableSize, loadFactor, -1);
+    }
+
+    private SearchStats(long nodesGenerated, long duplicates, long peakFrontier, int tableSize, double loadFactor,
+            long allocatedBytes) {
+        this.nodesGenerated = nodesGenerated;
+        this.duplicates = duplicates;
+        this.peakFrontier = peakFrontier;
+        this.tableSize = tableSize;
+        this.loadFactor = loadFactor;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    // Stats of a search that used a StateTable
+    public static SearchStats of(long nodesGenerated, long duplicates, long peakFrontier, StateTable table) {
+        return new SearchStats(nodesGenerated, duplicates, peakFrontier, table.size(), table.loadFactor());
+    }
+
+    public SearchStats withAllocatedBytes(long bytes) {
+        return new SearchStats(nodesGenerated, duplicates, peakFrontier, tableSize, loadFactor, bytes);
+    }
+
+    public long nodesGenerated() {
+        return nodesGenerated;
+    }
+
+    public long duplicates() {
+        return duplicates;
+    }
+
+    public long peakFrontier() {
+        return peakFrontier;
+    }
+
+    public int tableSize() {
+        return tableSize;
+    }
+
+    public double loadFactor() {
+        return loadFactor;
+    }
+
+    public long allocatedBytes() {
+        return allocatedBytes;
+    }
+}
@@ -0,0 +1,199 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Solutions of previously solved levels, kept in an in-memory LRU in front of one small
+// binary file per level on disk. The key is a hash of the level matrix plus the solver
+// name and version, so editing a level file or changing a solver simply leads to a new
+// key and the old record is never looked at again.
+//
+// Record layout: magic, format version, status, move count, nodes expanded, elapsed
+// nanos, solver name (modified UTF-8), then the moves packed four to a byte as 2-bit
+// direction codes.
+public class SolutionCache {
+    private static final int MAGIC = 0x50425343; // "PBSC"
+    // 2: portfolio records hold "portfolio" as the name, not "portfolio/<member>"
+    private static final int FORMAT_VERSION = 2;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path directory;
+    private final Map<String, SolverResult> memory;
+
+    public SolutionCache(Path directory, int memoryEntries) {
+        this.directory = directory;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SolverResult> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+    }
+
+    // Cache in -Dpathblocker.cacheDir, ".solution-cache" by default
+    public static SolutionCache fromSystemProperties() {
+        return new SolutionCache(Paths.get(System.getProperty("pathblocker.cacheDir", ".solution-cache")), 256);
+    }
+
+    // Returns the cached result for the level, or solves it and stores the result.
+    // Searches that were cancelled or ran out of budget are not cached.
+    public SolverResult solve(char[][] matrix, Solver solver, SearchLimits limits) {
+        return solve(matrix, null, solver, limits);
+    }
+
+    // The same for a caller that already built the level's board, null to build it on a miss
+    public SolverResult solve(char[][] matrix, Board board, Solver solver, SearchLimits limits) {
+        long startTime = System.nanoTime();
+        String key = key(matrix, solver);
+        SolverResult cached = lookup(key);
+        if (cached != null) {
+            return cached.fromCache(System.nanoTime() - startTime);
+        }
+
+        if (board == null) {
+            board = Board.fromMatrix(matrix);
+        }
+        if (board == null) {
+            return new SolverResult(solver.name(), null, 0, System.nanoTime() - startTime);
+        }
+        SolverResult result = solver.solve(board, limits);
+        if (result.status() == SolverResult.Status.SOLVED || result.status() == SolverResult.Status.NO_SOLUTION) {
+            store(key, result);
+        }
+        return result;
+    }
+
+    public SolverResult lookup(String key) {
+        synchronized (memory) {
+            SolverResult result = memory.get(key);
+            if (result != null) {
+                return result;
+            }
+        }
+        SolverResult result = read(key);
+        if (result != null) {
+            synchronized (memory) {
+                memory.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    public void store(String key, SolverResult result) {
+        synchronized (memory) {
+            memory.put(key, result);
+        }
+        try {
+            write(key, result);
+        } catch (IOException e) {
+            // The in-memory entry still serves this run
+            System.err.println("Could not write solution cache entry " + key + ": " + e.getMessage());
+        }
+    }
+
+    // Hex SHA-256 prefix of the level dimensions and cells, the solver name and version
+    public static String key(char[][] matrix, Solver solver) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update((solver.name() + "/" + solver.version() + "/" + FORMAT_VERSION + "/" + matrix.length)
+                .getBytes(StandardCharsets.UTF_8));
+        for (char[] row : matrix) {
+            digest.update((byte) '\n');
+            for (char cell : row) {
+                digest.update((byte) cell); // Level cells are ASCII
+            }
+        }
+        byte[] hash = digest.digest();
+        char[] hex = new char[32];
+        for (int i = 0; i < 16; i++) {
+            hex[2 * i] = HEX[(hash[i] >>> 4) & 15];
+            hex[2 * i + 1] = HEX[hash[i] & 15];
+        }
+        return new String(hex);
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key + ".sol");
+    }
+
+    private SolverResult read(String key) {
+        try (InputStream in = Files.newInputStream(file(key))) {
+            DataInputStream data = new DataInputStream(in);
+            if (data.readInt() != MAGIC || data.readUnsignedShort() != FORMAT_VERSION) {
+                return null;
+            }
+            int status = data.readUnsignedByte();
+            int length = data.readInt();
+            long nodesExpanded = data.readLong();
+            long elapsedNanos = data.readLong();
+            String solverName = data.readUTF();
+            if (status != SolverResult.Status.SOLVED.ordinal()) {
+                return new SolverResult(solverName, null, nodesExpanded, elapsedNanos);
+            }
+            List<Direction> path = new ArrayList<>(length);
+            int packed = 0;
+            for (int i = 0; i < length; i++) {
+                if ((i & 3) == 0) {
+                    packed = data.readUnsignedByte();
+                }
+                path.add(Direction.fromCode(packed >>> ((i & 3) * 2)));
+            }
+            return new SolverResult(solverName, path, nodesExpanded, elapsedNanos);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            // A truncated or unreadable record is treated as a miss and rewritten later
+            return null;
+        }
+    }
+
+    private void write(String key, SolverResult result) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        List<Direction> path = result.path();
+        int length = path != null ? path.size() : 0;
+        data.writeInt(MAGIC);
+        data.writeShort(FORMAT_VERSION);
+        data.writeByte(result.status().ordinal());
+        data.writeInt(length);
+        data.writeLong(result.nodesExpanded());
+        data.writeLong(result.elapsedNanos());
+        data.writeUTF(result.solverName());
+        int packed = 0;
+        for (int i = 0; i < length; i++) {
+            packed |= path.get(i).code() << ((i & 3) * 2);
+            if ((i & 3) == 3 || i == length - 1) {
+                data.writeByte(packed);
+                packed = 0;
+            }
+        }
+        data.flush();
+
+        // Write to a temporary file first so readers never see a half written record
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        try {
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// JFR event committed for every solve. Its duration is the solve itself. Recording it
+// costs nothing unless a recording enables it, e.g.
+// java -XX:StartFlightRecording:filename=solves.jfr ... and then: jfr print --events pathblocker.Solve solves.jfr
+@Name("pathblocker.Solve")
+@Label("Level Solve")
+@Category("Path Blocker")
+@Description("One solve of a level by a solver")
+public class SolveEvent extends jdk.jfr.Event {
+    @Label("Solver")
+    String solver;
+
+    @Label("Portfolio Winner")
+    @Description("Member that won the race, when the solver was a portfolio")
+    String winner;
+
+    @Label("Status")
+    String status;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Columns")
+    int cols;
+
+    @Label("Moves")
+    int moves;
+
+    @Label("Nodes Expanded")
+    long nodesExpanded;
+
+    @Label("Nodes Generated")
+    long nodesGenerated;
+
+    @Label("Duplicate Hits")
+    long duplicates;
+
+    @Label("Peak Frontier")
+    long peakFrontier;
+
+    @Label("Visited Table Size")
+    int tableSize;
+
+    @Label("Visited Table Load Factor")
+    double loadFactor;
+
+    @Label("Nanoseconds per Expansion")
+    long nanosPerExpansion;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Peak Search Memory")
+    @DataAmount
+    long peakMemoryBytes;
+}
@@ -0,0 +1,201 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Load test of the SolveServer that runs entirely on localhost. Without --url it starts a
+// server in this process on a free loopback port, with a solution cache in a fresh
+// temporary directory, so the first round of levels is solved and later ones come from
+// the cache. Every client sends its requests one after the other on its own thread.
+// --check first solves every level here with plain BFS and also fails each answer whose
+// move count differs from that shortest path; the Maven build runs it this way.
+//
+// Usage: java SolveLoadGenerator [--levels levels] [--clients 16] [--requests 500] [--batch 1]
+//            [--solver name] [--url http://127.0.0.1:8080] [--check]
+//
+// Prints the client side throughput and latency percentiles, then the server's /metrics.
+// Exits with 1 if any request failed, a level came back unsolved or, with --check, with
+// the wrong number of moves.
+public class SolveLoadGenerator {
+    private static final Pattern MOVES = Pattern.compile("\"moves\": (\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        String levelSource = "levels";
+        int clients = 16;
+        int requests = 500;
+        int batch = 1;
+        String solver = null;
+        String url = null;
+        boolean check = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--check")) {
+                    check = true;
+                    continue;
+                }
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i++]) {
+                    case "--levels" -> levelSource = value;
+                    case "--clients" -> clients = Math.max(1, Integer.parseInt(value));
+                    case "--requests" -> requests = Math.max(1, Integer.parseInt(value));
+                    case "--batch" -> batch = Math.max(1, Integer.parseInt(value));
+                    case "--solver" -> solver = value;
+                    case "--url" -> url = value;
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java SolveLoadGenerator [--levels levels] [--clients 16] [--requests 500] [--batch 1]"
+                    + " [--solver name] [--url http://127.0.0.1:8080] [--check]");
+            System.exit(2);
+            return;
+        }
+
+        List<String> levels = new ArrayList<>();
+        List<char[][]> matrices = new ArrayList<>();
+        for (String level : BatchSolver.findLevels(levelSource)) {
+            char[][] matrix = LevelLoader.read(level);
+            matrices.add(matrix);
+            levels.add(LevelLoader.toText(matrix));
+        }
+        if (levels.isEmpty()) {
+            System.err.println("No levels found in " + levelSource);
+            System.exit(2);
+        }
+        int[] expectedMoves = check ? shortestMoves(matrices) : null;
+
+        SolveServer server = null;
+        Path cacheDirectory = null;
+        if (url == null) {
+            cacheDirectory = Files.createTempDirectory("pathblocker-load-cache");
+            server = new SolveServer(new InetSocketAddress("127.0.0.1", 0), new SolutionCache(cacheDirectory, 256));
+            server.start();
+            url = "http://127.0.0.1:" + server.port();
+        }
+        int failures;
+        try {
+            failures = run(url, levels, expectedMoves, clients, requests, batch, solver);
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<String> metrics = client.send(HttpRequest.newBuilder(URI.create(url + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            System.out.print("Server metrics: " + metrics.body());
+        } finally {
+            if (server != null) {
+                server.stop(0);
+                deleteRecursively(cacheDirectory);
+            }
+        }
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Move count of each level's shortest path, -1 for a level without one
+    private static int[] shortestMoves(List<char[][]> matrices) {
+        Solver bfs = Solvers.uninstrumented("bfs");
+        int[] moves = new int[matrices.size()];
+        for (int i = 0; i < moves.length; i++) {
+            Board board = Board.fromMatrix(matrices.get(i));
+            SolverResult result = board != null ? bfs.solve(board, new SearchLimits(0, 0)) : null;
+            moves[i] = result != null && result.isSolved() ? result.path().size() : -1;
+        }
+        return moves;
+    }
+
+    // Sends the requests from the given number of clients and prints what they measured.
+    // Returns the number of failed requests, unsolved levels and, when expectedMoves is
+    // given, levels answered with another number of moves.
+    private static int run(String url, List<String> levels, int[] expectedMoves, int clients, int requests, int batch,
+            String solver) throws InterruptedException {
+        URI solveUri = URI.create(url + "/solve" + (solver != null ? "?solver=" + solver : ""));
+        HttpClient client = HttpClient.newHttpClient();
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicInteger nextRequest = new AtomicInteger();
+        LongAdder failedRequests = new LongAdder();
+        LongAdder unsolved = new LongAdder();
+        LongAdder wrongMoves = new LongAdder();
+
+        long start = System.nanoTime();
+        ExecutorService clientThreads = VirtualThreads.perTaskExecutor("load-client");
+        for (int c = 0; c < clients; c++) {
+            clientThreads.execute(() -> {
+                for (int n = nextRequest.getAndIncrement(); n < requests; n = nextRequest.getAndIncrement()) {
+                    StringBuilder body = new StringBuilder();
+                    for (int b = 0; b < batch; b++) {
+                        if (b > 0) {
+                            body.append(SolveServer.BOARD_SEPARATOR).append('\n');
+                        }
+                        body.append(levels.get((n * batch + b) % levels.size()));
+                    }
+                    HttpRequest request = HttpRequest.newBuilder(solveUri)
+                            .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        latency.record(System.nanoTime() - sent);
+                        if (response.statusCode() != 200) {
+                            failedRequests.increment();
+                            continue;
+                        }
+                        // writeJson puts every board's entry on a line of its own, in request order
+                        List<String> entries = response.body().lines()
+                                .filter(line -> line.contains("\"level\"")).toList();
+                        for (int b = 0; b < batch; b++) {
+                            String entry = b < entries.size() ? entries.get(b) : "";
+                            Matcher moves = MOVES.matcher(entry);
+                            if (!entry.contains("\"status\": \"SOLVED\"") || !moves.find()) {
+                                unsolved.increment();
+                            } else if (expectedMoves != null && Integer.parseInt(moves.group(1))
+                                    != expectedMoves[(n * batch + b) % levels.size()]) {
+                                wrongMoves.increment();
+                            }
+                        }
+                    } catch (IOException e) {
+                        latency.record(System.nanoTime() - sent);
+                        failedRequests.increment();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+        clientThreads.shutdown();
+        clientThreads.awaitTermination(1, TimeUnit.DAYS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(String.format(Locale.ROOT,
+                "%d requests of %d level(s) from %d clients in %.2f s: %.1f requests/s, %.1f levels/s, %d failed, %d unsolved",
+                requests, batch, clients, seconds, requests / seconds, requests * batch / seconds, failedRequests.sum(),
+                unsolved.sum()) + (expectedMoves != null ? ", " + wrongMoves.sum() + " with the wrong move count" : ""));
+        System.out.println("Client latency: " + latency.summary());
+        return (int) (failedRequests.sum() + unsolved.sum() + wrongMoves.sum());
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,236 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Small HTTP service that lets other tools call the solvers. Every request runs on its own
+// thread, a virtual one on Java 21 and later, and all requests share one SolutionCache,
+// so a level solved for one client is answered from the cache for the next.
+//
+//   POST /solve[?solver=name&timeBudgetMs=ms&nodeBudget=nodes]
+//       Body: one or more levels in the text format of the level files, separated by lines
+//       of "---". Answer: a JSON array with one entry per level, as BatchSolver --format json
+//       writes it, solved in order with the chosen solver (portfolio by default).
+//   GET /metrics
+//       Request counts, throughput since the start and request latency percentiles as JSON.
+//
+// Usage: java SolveServer [--port 8080] [--host 127.0.0.1]
+//
+// It only listens on the loopback interface unless another --host is given.
+public class SolveServer {
+    public static final String BOARD_SEPARATOR = "---";
+    private static final int MAX_BODY_BYTES = 16 << 20;
+
+    private final HttpServer server;
+    private final ExecutorService requestThreads;
+    private final SolutionCache cache;
+    private final long startNanos = System.nanoTime();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder(); // Answered with a 4xx or 5xx status
+    private final LongAdder boards = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public SolveServer(InetSocketAddress address, SolutionCache cache) throws IOException {
+        this.cache = cache;
+        this.server = HttpServer.create(address, 0);
+        this.requestThreads = VirtualThreads.perTaskExecutor("solve-request");
+        server.setExecutor(requestThreads);
+        server.createContext("/solve", this::handleSolve);
+        server.createContext("/metrics", this::handleMetrics);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // Stops accepting requests and waits up to delaySeconds for the running ones
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        requestThreads.shutdown();
+    }
+
+    // The bound port, useful after binding to port 0
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleSolve(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        inFlight.incrementAndGet();
+        int status = 500;
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                status = send(exchange, 405, "text/plain", "Use POST with the levels as the body\n");
+                return;
+            }
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readNBytes(MAX_BODY_BYTES + 1);
+            }
+            if (body.length > MAX_BODY_BYTES) {
+                status = send(exchange, 413, "text/plain", "At most " + MAX_BODY_BYTES + " bytes per request\n");
+                return;
+            }
+
+            try {
+                Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+                Solver solver = Solvers.byName(query.getOrDefault("solver", Solvers.DEFAULT));
+                long timeBudgetMillis = Long.parseLong(query.getOrDefault("timeBudgetMs", "0"));
+                long nodeBudget = Long.parseLong(query.getOrDefault("nodeBudget", "0"));
+                List<char[][]> levels = splitLevels(body);
+                List<BatchSolver.LevelResult> results = new ArrayList<>();
+                for (int i = 0; i < levels.size(); i++) {
+                    String name = "board" + (i + 1);
+                    char[][] matrix = levels.get(i);
+                    Board board = Board.fromMatrix(matrix);
+                    if (board == null) {
+                        results.add(new BatchSolver.LevelResult(name, null, "No starting position 'X' found"));
+                        continue;
+                    }
+                    SolverResult result = cache.solve(matrix, board, solver,
+                            new SearchLimits(timeBudgetMillis, nodeBudget));
+                    if (result.isCached()) {
+                        cacheHits.increment();
+                    }
+                    results.add(new BatchSolver.LevelResult(name, result, null));
+                }
+                boards.add(levels.size());
+
+                ByteArrayOutputStream json = new ByteArrayOutputStream();
+                try (PrintStream out = new PrintStream(json, false, StandardCharsets.UTF_8)) {
+                    BatchSolver.writeJson(results, out);
+                }
+                status = send(exchange, 200, "application/json", json.toString(StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                status = send(exchange, 400, "text/plain", e.getMessage() + "\n");
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                status = send(exchange, 500, "text/plain", e + "\n");
+            }
+        } finally {
+            inFlight.decrementAndGet();
+            requests.increment();
+            if (status >= 400) {
+                failedRequests.increment();
+            }
+            latency.record(System.nanoTime() - start);
+            exchange.close();
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            send(exchange, 200, "application/json", metricsJson());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Counters since the start of the server; latencies cover /solve requests only
+    public String metricsJson() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long requestCount = requests.sum();
+        long boardCount = boards.sum();
+        return String.format(Locale.ROOT,
+                "{\"uptimeSeconds\": %.1f, \"virtualThreads\": %b, \"requests\": %d, \"failedRequests\": %d, \"inFlight\": %d,"
+                        + " \"boards\": %d, \"cacheHits\": %d, \"requestsPerSecond\": %.2f, \"boardsPerSecond\": %.2f,"
+                        + " \"latencyMs\": {\"mean\": %.3f, \"p50\": %.3f, \"p95\": %.3f, \"p99\": %.3f, \"max\": %.3f}}\n",
+                seconds, VirtualThreads.available(), requestCount, failedRequests.sum(), inFlight.get(), boardCount,
+                cacheHits.sum(), requestCount / seconds, boardCount / seconds, latency.meanMillis(),
+                latency.percentileMillis(50), latency.percentileMillis(95), latency.percentileMillis(99), latency.maxMillis());
+    }
+
+    // The levels of a request body. Each one must be a non-empty rectangle of '0', '1', 'X'
+    // and 'Y' cells, anything else is rejected before it reaches a solver.
+    static List<char[][]> splitLevels(byte[] body) {
+        List<char[][]> levels = new ArrayList<>();
+        for (String part : new String(body, StandardCharsets.ISO_8859_1).split("(?m)^[ \t]*" + BOARD_SEPARATOR + "[ \t\r]*$")) {
+            char[][] matrix = LevelLoader.parse(part.getBytes(StandardCharsets.ISO_8859_1));
+            if (matrix.length == 0) {
+                continue;
+            }
+            for (char[] row : matrix) {
+                if (row.length != matrix[0].length) {
+                    throw new IllegalArgumentException("Level " + (levels.size() + 1) + " is not rectangular");
+                }
+                for (char cell : row) {
+                    if (cell != '0' && cell != '1' && cell != 'X' && cell != 'Y') {
+                        throw new IllegalArgumentException("Level " + (levels.size() + 1) + " has an unknown cell '" + cell + "'");
+                    }
+                }
+            }
+            levels.add(matrix);
+        }
+        if (levels.isEmpty()) {
+            throw new IllegalArgumentException("No level in the request body");
+        }
+        return levels;
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int split = pair.indexOf('=');
+            if (split > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, split), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(split + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static int send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        return status;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = "127.0.0.1";
+        int port = 8080;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i++]) {
+                    case "--port" -> port = Integer.parseInt(value);
+                    case "--host" -> host = value;
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java SolveServer [--port 8080] [--host 127.0.0.1]");
+            System.exit(2);
+            return;
+        }
+        SolveServer server = new SolveServer(new InetSocketAddress(host, port), SolutionCache.fromSystemProperties());
+        server.start();
+        System.out.println("Solving on http://" + host + ":" + server.port() + "/solve, metrics on /metrics");
+    }
+}
@@ -0,0 +1,31 @@
+// A search strategy that finds a sequence of slides taking the player from 'X' to a 'Y'
+public interface Solver {
+    // Short identifier used to pick the solver, e.g. "bfs"
+    String name();
+
+    // Bumped whenever a change can alter the path the solver returns, which invalidates
+    // results cached for it
+    default int version() {
+        return 1;
+    }
+
+    // How much longer than the shortest path a returned path can be, as a factor: 1 for
+    // solvers that always find a shortest path
+    default double optimalityBound() {
+        return 1;
+    }
+
+    // False for solvers that search on threads of their own. Those put the allocation of
+    // all their threads into the result's stats themselves, see AllocationTally.
+    default boolean solvesOnCallingThread() {
+        return true;
+    }
+
+    // Solves the board within the given limits. A solver polls limits.shouldStop once per
+    // expanded node and returns SolverResult.stopped as soon as it says so.
+    SolverResult solve(Board board, SearchLimits limits);
+
+    default SolverResult solve(Board board) {
+        return solve(board, SearchLimits.unlimited());
+    }
+}
@@ -0,0 +1,131 @@
+import java.util.List;
+
+// Outcome of a single solve: the path (null when no solution was found) plus the
+// counters needed to compare solvers with each other
+public class SolverResult {
+    public enum Status {
+        SOLVED, NO_SOLUTION, BUDGET_EXHAUSTED, CANCELLED
+    }
+
+    private final String solverName;
+    private final Status status;
+    private final List<Direction> path;
+    private final long nodesExpanded;
+    private final long elapsedNanos;
+    private final long peakMemoryBytes; // Largest footprint of the search structures, 0 if unknown
+    private final SearchStats stats;
+    private final String winner; // Member that won a portfolio race, null for other solvers
+    private final boolean cached; // Answered from a SolutionCache instead of searching
+
+    public SolverResult(String solverName, List<Direction> path, long nodesExpanded, long elapsedNanos) {
+        this(solverName, path != null ? Status.SOLVED : Status.NO_SOLUTION, path, nodesExpanded, elapsedNanos, 0,
+                SearchStats.NONE, null, false);
+    }
+
+    // Result of a search that gave up before finishing
+    public static SolverResult stopped(String solverName, SearchLimits limits, long nodesExpanded, long elapsedNanos) {
+        return new SolverResult(solverName, limits.stopStatus(), null, nodesExpanded, elapsedNanos, 0, SearchStats.NONE,
+                null, false);
+    }
+
+    private SolverResult(String solverName, Status status, List<Direction> path, long nodesExpanded,
+            long elapsedNanos, long peakMemoryBytes, SearchStats stats, String winner, boolean cached) {
+        this.solverName = solverName;
+        this.status = status;
+        this.path = path;
+        this.nodesExpanded = nodesExpanded;
+        this.elapsedNanos = elapsedNanos;
+        this.peakMemoryBytes = peakMemoryBytes;
+        this.stats = stats;
+        this.winner = winner;
+        this.cached = cached;
+    }
+
+    // Copy of this result that also reports the memory used by the search
+    public SolverResult withPeakMemoryBytes(long bytes) {
+        return new SolverResult(solverName, status, path, nodesExpanded, elapsedNanos, bytes, stats, winner, cached);
+    }
+
+    // Copy of this result with the solver's counters
+    public SolverResult withStats(SearchStats stats) {
+        return new SolverResult(solverName, status, path, nodesExpanded, elapsedNanos, peakMemoryBytes, stats, winner,
+                cached);
+    }
+
+    // Copy of this result naming the portfolio member that found it
+    public SolverResult withWinner(String member) {
+        return new SolverResult(solverName, status, path, nodesExpanded, elapsedNanos, peakMemoryBytes, stats, member,
+                cached);
+    }
+
+    // Copy of this result as a cache answers it, taking only the time of the lookup
+    public SolverResult fromCache(long lookupNanos) {
+        return new SolverResult(solverName, status, path, nodesExpanded, lookupNanos, peakMemoryBytes, stats, winner,
+                true);
+    }
+
+    public String solverName() {
+        return solverName;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    // The portfolio member whose result this is, null if the solver was not a portfolio
+    public String winner() {
+        return winner;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public boolean isSolved() {
+        return path != null;
+    }
+
+    // Short human readable outcome, e.g. "14 moves" or "no solution within budget"
+    public String describe() {
+        switch (status) {
+            case SOLVED:
+                return path.size() + " moves";
+            case BUDGET_EXHAUSTED:
+                return "no solution within budget";
+            case CANCELLED:
+                return "cancelled";
+            default:
+                return "no path";
+        }
+    }
+
+    public List<Direction> path() {
+        return path;
+    }
+
+    public long nodesExpanded() {
+        return nodesExpanded;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long peakMemoryBytes() {
+        return peakMemoryBytes;
+    }
+
+    public SearchStats stats() {
+        return stats;
+    }
+
+    public long elapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return solverName + (winner != null ? " (" + winner + ")" : "") + (cached ? " (cached)" : "") + ": "
+                + describe() + ", " + nodesExpanded + " nodes expanded, " + elapsedMillis() + " ms";
+    }
+}
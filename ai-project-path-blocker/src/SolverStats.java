@@ -0,0 +1,201 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// The SolverStatsMXBean of this process. Solves are recorded once each, under the lock
+// of this object, so the cost per solve is a handful of additions.
+public class SolverStats implements SolverStatsMXBean {
+    public static final String OBJECT_NAME = "pathblocker:type=SolverStats";
+
+    private static SolverStats instance;
+
+    private long solves;
+    private long solved;
+    private long noSolution;
+    private long budgetExhausted;
+    private long cancelled;
+    private long nodesExpanded;
+    private long nodesGenerated;
+    private long duplicates;
+    private long allocatedBytes;
+    private long totalSolveNanos;
+    private long maxPeakFrontier;
+    private SolverResult last;
+    private final Map<String, Long> portfolioWins = new TreeMap<>();
+
+    // The registered instance, registered with the platform MBean server on first use
+    public static synchronized SolverStats get() {
+        if (instance == null) {
+            instance = new SolverStats();
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                // Still counts, it is just not visible over JMX
+                System.err.println("Could not register " + OBJECT_NAME + ": " + e);
+            }
+        }
+        return instance;
+    }
+
+    public synchronized void record(SolverResult result) {
+        SearchStats stats = result.stats();
+        solves++;
+        switch (result.status()) {
+            case SOLVED -> solved++;
+            case NO_SOLUTION -> noSolution++;
+            case BUDGET_EXHAUSTED -> budgetExhausted++;
+            case CANCELLED -> cancelled++;
+        }
+        nodesExpanded += result.nodesExpanded();
+        nodesGenerated += stats.nodesGenerated();
+        duplicates += stats.duplicates();
+        allocatedBytes += Math.max(0, stats.allocatedBytes());
+        totalSolveNanos += result.elapsedNanos();
+        maxPeakFrontier = Math.max(maxPeakFrontier, stats.peakFrontier());
+        last = result;
+    }
+
+    // Counts a portfolio race won by the named member
+    public synchronized void recordPortfolioWin(String member) {
+        portfolioWins.merge(member, 1L, Long::sum);
+    }
+
+    static long nanosPerExpansion(SolverResult result) {
+        return result.elapsedNanos() / Math.max(1, result.nodesExpanded());
+    }
+
+    @Override
+    public synchronized long getSolves() {
+        return solves;
+    }
+
+    @Override
+    public synchronized long getSolved() {
+        return solved;
+    }
+
+    @Override
+    public synchronized long getNoSolution() {
+        return noSolution;
+    }
+
+    @Override
+    public synchronized long getBudgetExhausted() {
+        return budgetExhausted;
+    }
+
+    @Override
+    public synchronized long getCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public synchronized long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    @Override
+    public synchronized long getNodesGenerated() {
+        return nodesGenerated;
+    }
+
+    @Override
+    public synchronized long getDuplicates() {
+        return duplicates;
+    }
+
+    @Override
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public synchronized long getTotalSolveMillis() {
+        return totalSolveNanos / 1_000_000;
+    }
+
+    @Override
+    public synchronized long getMaxPeakFrontier() {
+        return maxPeakFrontier;
+    }
+
+    @Override
+    public synchronized double getAverageNanosPerExpansion() {
+        return nodesExpanded == 0 ? 0 : (double) totalSolveNanos / nodesExpanded;
+    }
+
+    @Override
+    public synchronized String getLastSolver() {
+        return last != null ? last.solverName() : null;
+    }
+
+    @Override
+    public synchronized String getLastStatus() {
+        return last != null ? last.status().toString() : null;
+    }
+
+    @Override
+    public synchronized long getLastElapsedMillis() {
+        return last != null ? last.elapsedMillis() : 0;
+    }
+
+    @Override
+    public synchronized long getLastNodesExpanded() {
+        return last != null ? last.nodesExpanded() : 0;
+    }
+
+    @Override
+    public synchronized long getLastNodesGenerated() {
+        return last != null ? last.stats().nodesGenerated() : 0;
+    }
+
+    @Override
+    public synchronized long getLastDuplicates() {
+        return last != null ? last.stats().duplicates() : 0;
+    }
+
+    @Override
+    public synchronized long getLastPeakFrontier() {
+        return last != null ? last.stats().peakFrontier() : 0;
+    }
+
+    @Override
+    public synchronized int getLastTableSize() {
+        return last != null ? last.stats().tableSize() : 0;
+    }
+
+    @Override
+    public synchronized double getLastLoadFactor() {
+        return last != null ? last.stats().loadFactor() : 0;
+    }
+
+    @Override
+    public synchronized long getLastNanosPerExpansion() {
+        return last != null ? nanosPerExpansion(last) : 0;
+    }
+
+    @Override
+    public synchronized long getLastAllocatedBytes() {
+        return last != null ? last.stats().allocatedBytes() : 0;
+    }
+
+    @Override
+    public synchronized long getLastPeakMemoryBytes() {
+        return last != null ? last.peakMemoryBytes() : 0;
+    }
+
+    @Override
+    public synchronized Map<String, Long> getPortfolioWins() {
+        return new TreeMap<>(portfolioWins);
+    }
+
+    @Override
+    public synchronized void resetStatistics() {
+        solves = solved = noSolution = budgetExhausted = cancelled = 0;
+        nodesExpanded = nodesGenerated = duplicates = allocatedBytes = totalSolveNanos = maxPeakFrontier = 0;
+        last = null;
+        portfolioWins.clear();
+    }
+}
@@ -0,0 +1,58 @@
+import java.util.Map;
+
+// Solver statistics published over JMX as pathblocker:type=SolverStats, e.g. for jconsole.
+// Totals cover every solve since the start (or the last reset), "Last" values the latest one.
+public interface SolverStatsMXBean {
+    long getSolves();
+
+    long getSolved();
+
+    long getNoSolution();
+
+    long getBudgetExhausted();
+
+    long getCancelled();
+
+    long getNodesExpanded();
+
+    long getNodesGenerated();
+
+    long getDuplicates();
+
+    long getAllocatedBytes();
+
+    long getTotalSolveMillis();
+
+    long getMaxPeakFrontier();
+
+    double getAverageNanosPerExpansion();
+
+    String getLastSolver();
+
+    String getLastStatus();
+
+    long getLastElapsedMillis();
+
+    long getLastNodesExpanded();
+
+    long getLastNodesGenerated();
+
+    long getLastDuplicates();
+
+    long getLastPeakFrontier();
+
+    int getLastTableSize();
+
+    double getLastLoadFactor();
+
+    long getLastNanosPerExpansion();
+
+    long getLastAllocatedBytes();
+
+    long getLastPeakMemoryBytes();
+
+    // Races won per member by the portfolio solver
+    Map<String, Long> getPortfolioWins();
+
+    void resetStatistics();
+}
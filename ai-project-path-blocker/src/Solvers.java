@@ -0,0 +1,45 @@
+import java.util.Arrays;
+import java.util.List;
+
+// Registry of the available solvers, looked up by name
+public final class Solvers {
+    public static final String DEFAULT = "portfolio";
+
+    private Solvers() {
+    }
+
+    public static List<String> names() {
+        return Arrays.asList("portfolio", "bfs", "macro-bfs", "astar", "wastar", "idastar", "parallel-bfs", "external-bfs");
+    }
+
+    // The solver with that name, reporting to JFR and JMX unless telemetry is off
+    public static Solver byName(String name) {
+        Solver solver = uninstrumented(name);
+        return InstrumentedSolver.enabled() ? new InstrumentedSolver(solver) : solver;
+    }
+
+    public static Solver uninstrumented(String name) {
+        switch (name.toLowerCase()) {
+            case "portfolio":
+                return PortfolioSolver.fromSystemProperties();
+            case "bfs":
+                return new BfsSolver();
+            case "macro-bfs":
+                return new MacroBfsSolver();
+            case "astar":
+            case "a*":
+                return new AStarSolver();
+            case "wastar":
+                return AStarSolver.weightedFromSystemProperties();
+            case "idastar":
+            case "ida*":
+                return new IdaStarSolver();
+            case "parallel-bfs":
+                return ParallelBfsSolver.withConfiguredThreads();
+            case "external-bfs":
+                return ExternalBfsSolver.fromSystemProperties();
+            default:
+                throw new IllegalArgumentException("Unknown solver '" + name + "', expected one of " + names());
+        }
+    }
+}
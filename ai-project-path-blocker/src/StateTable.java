@@ -0,0 +1,187 @@
+import java.util.Arrays;
+import java.util.List;
+
+// Visited table for the search. Every state is packed into a fixed number of long words
+// (word 0 = player position, the rest = reachable region bits, see Board) and stored back to back in one arena.
+// Lookups go through an open-addressing index with linear probing, so adding a state
+// never allocates a per-state object. Since states are appended in insertion order the
+// arena doubles as the BFS queue. Next to every state only its 64-bit hash, its parent
+// index and the 2-bit direction that produced it are kept, so paths are rebuilt once the
+// goal is found. Callers pass the Zobrist hash of Board; probes compare it first and only
+// compare the packed words when the hashes are equal, which for a 64-bit hash almost
+// always means the state is there.
+public class StateTable {
+    private static final float MAX_LOAD = 0.5f;
+
+    private final int stride; // Words per packed state
+    private long[] words; // Packed states, stride words each
+    private long[] hashes; // Board.hash of every stored state
+    private int[] links; // (parent index << 2) | direction code, -1 for the root
+    private int[] slots; // Open-addressing index: state index + 1, 0 marks an empty slot
+    private int mask;
+    private int size;
+
+    public StateTable(int stride, int expectedStates) {
+        this.stride = stride;
+        int capacity = Math.max(16, expectedStates);
+        this.words = new long[capacity * stride];
+        this.hashes = new long[capacity];
+        this.links = new int[capacity];
+        this.slots = new int[tableSizeFor(capacity)];
+        this.mask = slots.length - 1;
+    }
+
+    public int stride() {
+        return stride;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Adds the root state of the search
+    public int addRoot(long[] state, long hash) {
+        return add(state, hash, -1, 0);
+    }
+
+    // Adds the packed state, reached from parent by moving in direction, if it is not
+    // present yet. Returns the index of the new state, or -1 if it was already in the table.
+    public int add(long[] state, long hash, int parent, int direction) {
+        int slot = (int) hash & mask;
+        while (true) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                break;
+            }
+            int index = entry - 1;
+            if (hashes[index] == hash && matches(index, state)) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int index = size;
+        if (index == hashes.length) {
+            growArena();
+        }
+        System.arraycopy(state, 0, words, index * stride, stride);
+        hashes[index] = hash;
+        links[index] = parent < 0 ? -1 : (parent << 2) | direction;
+        slots[slot] = index + 1;
+        size++;
+
+        if (size > slots.length * MAX_LOAD) {
+            rehash();
+        }
+        return index;
+    }
+
+    // Returns the index of the packed state, or -1 if it is not in the table
+    public int indexOf(long[] state, long hash) {
+        int slot = (int) hash & mask;
+        while (true) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int index = entry - 1;
+            if (hashes[index] == hash && matches(index, state)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // Hash the state at index was added with
+    public long hash(int index) {
+        return hashes[index];
+    }
+
+    // Points the state at index to a new parent, used when a cheaper path to it is found
+    public void relink(int index, int parent, int direction) {
+        links[index] = (parent << 2) | direction;
+    }
+
+    // Index of the state the one at index was reached from, -1 for the root
+    public int parent(int index) {
+        return links[index] == -1 ? -1 : links[index] >>> 2;
+    }
+
+    // Direction that led from the parent to the state at index
+    public Direction direction(int index) {
+        return Direction.fromCode(links[index]);
+    }
+
+    // Copies the packed state at the given index into dst
+    public void get(int index, long[] dst) {
+        System.arraycopy(words, index * stride, dst, 0, stride);
+    }
+
+    // Word 0 of every state is the player position
+    public int position(int index) {
+        return (int) words[index * stride];
+    }
+
+    // Rebuilds the moves leading from the root to the state at the given index
+    public List<Direction> pathTo(int index) {
+        int length = 0;
+        for (int i = index; links[i] != -1; i = links[i] >>> 2) {
+            length++;
+        }
+        Direction[] path = new Direction[length];
+        for (int i = index; links[i] != -1; i = links[i] >>> 2) {
+            path[--length] = Direction.fromCode(links[i]);
+        }
+        return Arrays.asList(path);
+    }
+
+    // Slots of the open-addressing index
+    public int indexSlots() {
+        return slots.length;
+    }
+
+    // Share of used index slots, kept at or below MAX_LOAD
+    public double loadFactor() {
+        return (double) size / slots.length;
+    }
+
+    // Approximate heap footprint of the table in bytes
+    public long memoryBytes() {
+        return (long) words.length * Long.BYTES + (long) hashes.length * Long.BYTES
+                + (long) links.length * Integer.BYTES + (long) slots.length * Integer.BYTES;
+    }
+
+    private boolean matches(int index, long[] state) {
+        int offset = index * stride;
+        for (int i = 0; i < stride; i++) {
+            if (words[offset + i] != state[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void growArena() {
+        int capacity = hashes.length * 2;
+        words = Arrays.copyOf(words, capacity * stride);
+        hashes = Arrays.copyOf(hashes, capacity);
+        links = Arrays.copyOf(links, capacity);
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        mask = slots.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = (int) hashes[index] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        return Math.max(32, n * 2);
+    }
+}
@@ -0,0 +1,32 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Thread per task executors that use virtual threads when the runtime has them (Java 21
+// and later) and daemon platform threads otherwise. The build targets Java 17, so
+// Executors.newVirtualThreadPerTaskExecutor is looked up by reflection.
+public final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    public static boolean available() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    // A new thread per task; platformName names the platform threads of the fallback
+    public static ExecutorService perTaskExecutor(String platformName) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, platformName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}